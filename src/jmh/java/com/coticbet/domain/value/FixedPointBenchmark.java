@@ -0,0 +1,149 @@
+package com.coticbet.domain.value;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * FixedPoint against the BigDecimal arithmetic it replaced, on the two hot
+ * paths: the total odd and payout of a bet slip, and parimutuel odds
+ * (total pool / option pool) for every option of an event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixedPointBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    /**
+     * Random bet slips: locked odds per leg and the stake
+     */
+    @State(Scope.Thread)
+    public static class Slips {
+
+        @Param({ "1", "4" })
+        int legs;
+
+        long[][] oddHundredths;
+        BigDecimal[][] odds;
+        long[] amountHundredths;
+        BigDecimal[] amounts;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            oddHundredths = new long[SAMPLES][legs];
+            odds = new BigDecimal[SAMPLES][legs];
+            amountHundredths = new long[SAMPLES];
+            amounts = new BigDecimal[SAMPLES];
+
+            for (int i = 0; i < SAMPLES; i++) {
+                for (int leg = 0; leg < legs; leg++) {
+                    oddHundredths[i][leg] = 101 + random.nextInt(900);
+                    odds[i][leg] = FixedPoint.toBigDecimal(oddHundredths[i][leg]);
+                }
+                amountHundredths[i] = 100 + random.nextInt(100_000);
+                amounts[i] = FixedPoint.toBigDecimal(amountHundredths[i]);
+            }
+        }
+
+        int next() {
+            next = (next + 1) & (SAMPLES - 1);
+            return next;
+        }
+    }
+
+    /**
+     * Random event pools: amount staked per option
+     */
+    @State(Scope.Thread)
+    public static class Pools {
+
+        @Param({ "3", "8" })
+        int options;
+
+        long[][] stakeHundredths;
+        BigDecimal[][] stakes;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            stakeHundredths = new long[SAMPLES][options];
+            stakes = new BigDecimal[SAMPLES][options];
+
+            for (int i = 0; i < SAMPLES; i++) {
+                for (int option = 0; option < options; option++) {
+                    stakeHundredths[i][option] = 1 + random.nextInt(10_000_000);
+                    stakes[i][option] = FixedPoint.toBigDecimal(stakeHundredths[i][option]);
+                }
+            }
+        }
+
+        int next() {
+            next = (next + 1) & (SAMPLES - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public long payoutFixedPoint(Slips slips) {
+        int i = slips.next();
+        long totalOdd = FixedPoint.product(slips.oddHundredths[i]);
+        return FixedPoint.multiply(slips.amountHundredths[i], totalOdd);
+    }
+
+    @Benchmark
+    public BigDecimal payoutBigDecimal(Slips slips) {
+        int i = slips.next();
+        BigDecimal totalOdd = BigDecimal.ONE;
+        for (BigDecimal odd : slips.odds[i]) {
+            totalOdd = totalOdd.multiply(odd);
+        }
+        totalOdd = totalOdd.setScale(2, RoundingMode.HALF_UP);
+        return slips.amounts[i].multiply(totalOdd).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public void poolOddsFixedPoint(Pools pools, Blackhole blackhole) {
+        long[] pool = pools.stakeHundredths[pools.next()];
+        long total = 0;
+        for (long staked : pool) {
+            total += staked;
+        }
+        for (long staked : pool) {
+            blackhole.consume(FixedPoint.divide(total, staked));
+        }
+    }
+
+    @Benchmark
+    public void poolOddsBigDecimal(Pools pools, Blackhole blackhole) {
+        BigDecimal[] pool = pools.stakes[pools.next()];
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal staked : pool) {
+            total = total.add(staked);
+        }
+        for (BigDecimal staked : pool) {
+            blackhole.consume(total.divide(staked, 2, RoundingMode.HALF_UP));
+        }
+    }
+}
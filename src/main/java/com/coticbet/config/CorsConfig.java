@@ -42,7 +42,8 @@ public class CorsConfig {
                                 "Accept",
                                 "Origin",
                                 "Access-Control-Request-Method",
-                                "Access-Control-Request-Headers"));
+                                "Access-Control-Request-Headers",
+                                "Idempotency-Key"));
 
                 // Exposed headers (for frontend to read)
                 configuration.setExposedHeaders(Arrays.asList(
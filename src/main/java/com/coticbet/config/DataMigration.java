@@ -1,31 +1,67 @@
 package com.coticbet.config;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import com.coticbet.domain.entity.BadgeProgress;
+import com.coticbet.domain.entity.Bet;
+import com.coticbet.domain.entity.Event;
 import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.BetStatus;
+import com.coticbet.repository.BetRepository;
+import com.coticbet.repository.EventRepository;
 import com.coticbet.repository.UserRepository;
+import com.coticbet.service.BadgeProgressService;
+import com.coticbet.service.ChunkMarker;
+import com.coticbet.service.ProfitStatsService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Data migration runner that executes on application startup.
- * Migrates existing users without a 'name' field.
+ * Migrates existing users without a 'name' field, plus wallet balances and
+ * event option amounts that were persisted as strings, and backfills badge
+ * counters and profit stats.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class DataMigration implements ApplicationRunner {
 
+    private static final int BSON_STRING_TYPE = 2;
+    private static final int PROFIT_BACKFILL_CHUNK_SIZE = 500;
+    private static final String MIGRATIONS_COLLECTION = "migrations";
+    private static final String PROFIT_BACKFILL_MIGRATION = "profit_stats_backfill";
+
     private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final BetRepository betRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ProfitStatsService profitStatsService;
 
     @Override
     public void run(ApplicationArguments args) {
+        // Before anything re-saves users, which would persist empty counters
+        backfillBadgeProgress();
         migrateUserNames();
+        migrateWalletBalances();
+        migrateEventOptionAmounts();
+        backfillProfitStats();
     }
 
     private void migrateUserNames() {
@@ -49,4 +85,189 @@ public class DataMigration implements ApplicationRunner {
 
         log.info("User name migration completed.");
     }
+
+    /**
+     * Wallet balances used to be stored as strings (the default BigDecimal
+     * mapping). Atomic $inc and numeric guards require Decimal128, so re-save any
+     * user still on the old representation.
+     */
+    private void migrateWalletBalances() {
+        Query legacyBalances = Query.query(Criteria.where("walletBalance").type(BSON_STRING_TYPE));
+        List<User> users = mongoTemplate.find(legacyBalances, User.class);
+
+        if (users.isEmpty()) {
+            log.info("No wallet balances need Decimal128 migration.");
+            return;
+        }
+
+        log.info("Migrating {} wallet balances to Decimal128...", users.size());
+
+        for (User user : users) {
+            userRepository.save(user);
+        }
+
+        log.info("Wallet balance migration completed.");
+    }
+
+    /**
+     * Same as wallet balances: option stakes are incremented in place with $inc,
+     * which needs Decimal128 values.
+     */
+    private void migrateEventOptionAmounts() {
+        Query legacyOptions = Query.query(Criteria.where("options.totalStaked").type(BSON_STRING_TYPE));
+        List<Event> events = mongoTemplate.find(legacyOptions, Event.class);
+
+        if (events.isEmpty()) {
+            log.info("No event options need Decimal128 migration.");
+            return;
+        }
+
+        log.info("Migrating options of {} events to Decimal128...", events.size());
+
+        for (Event event : events) {
+            eventRepository.save(event);
+        }
+
+        log.info("Event option migration completed.");
+    }
+
+    /**
+     * Users created before badge counters existed get them computed once from
+     * their bet history.
+     */
+    private void backfillBadgeProgress() {
+        Query withoutProgress = Query.query(Criteria.where("badgeProgress").exists(false));
+        withoutProgress.fields().include("_id");
+        List<User> users = mongoTemplate.find(withoutProgress, User.class);
+
+        if (users.isEmpty()) {
+            log.info("No users need badge progress backfill.");
+            return;
+        }
+
+        log.info("Backfilling badge progress of {} users...", users.size());
+
+        LocalDate today = LocalDate.now();
+        for (User user : users) {
+            List<Bet> bets = betRepository.findByUserId(user.getId(), Sort.by(Sort.Direction.DESC, "createdAt"));
+
+            // Current streak: LOST bets back to the most recent WON one
+            int lossStreak = 0;
+            for (Bet bet : bets) {
+                if (bet.getStatus() == BetStatus.WON) {
+                    break;
+                }
+                if (bet.getStatus() == BetStatus.LOST) {
+                    lossStreak++;
+                }
+            }
+
+            int microBetCount = (int) bets.stream()
+                    .filter(bet -> bet.getAmount().compareTo(BadgeProgressService.MICRO_BET_MAX_AMOUNT) <= 0)
+                    .count();
+
+            int workHourBetCount = (int) bets.stream()
+                    .filter(bet -> bet.getCreatedAt() != null && bet.getCreatedAt().toLocalDate().equals(today))
+                    .filter(bet -> BadgeProgressService.isWorkHours(bet.getCreatedAt()))
+                    .count();
+
+            BadgeProgress progress = BadgeProgress.builder()
+                    .lossStreak(lossStreak)
+                    .microBetCount(microBetCount)
+                    .workHourBetDay(workHourBetCount > 0 ? today : null)
+                    .workHourBetCount(workHourBetCount)
+                    .build();
+
+            // Only sets the field if it is still missing, so live updates are never overwritten
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(user.getId()).and("badgeProgress").exists(false)),
+                    new Update().set("badgeProgress", progress),
+                    User.class);
+        }
+
+        log.info("Badge progress backfill completed.");
+    }
+
+    /**
+     * Build the weekly and monthly profit buckets from bets settled before the
+     * backfill started; later bets are recorded live. Progress is tracked in a
+     * migrations document holding the cutoff, the last bet of the last
+     * recorded chunk and, at the end, completedAt, so an interrupted backfill
+     * resumes on the next startup. Every bucket update carries a
+     * {@link ChunkMarker}, so a chunk that was recorded but not checkpointed is
+     * skipped when it runs again. Bets are streamed in chunks to keep memory
+     * flat.
+     */
+    private void backfillProfitStats() {
+        Document migration = mongoTemplate.findById(PROFIT_BACKFILL_MIGRATION, Document.class,
+                MIGRATIONS_COLLECTION);
+        if (migration != null && migration.get("completedAt") != null) {
+            log.info("Profit stats already populated.");
+            return;
+        }
+
+        String lastBetId = null;
+        if (migration == null) {
+            migration = new Document("_id", PROFIT_BACKFILL_MIGRATION).append("cutoff", new Date());
+            mongoTemplate.insert(migration, MIGRATIONS_COLLECTION);
+            log.info("Backfilling profit stats from settled bets...");
+        } else {
+            lastBetId = migration.getString("lastBetId");
+            log.info("Resuming profit stats backfill after bet {}...", lastBetId);
+            if (lastBetId != null) {
+                // The last checkpointed chunk may not have released its markers
+                profitStatsService.releaseChunkMarkers(new ChunkMarker(PROFIT_BACKFILL_MIGRATION, lastBetId));
+            }
+        }
+
+        Criteria criteria = Criteria.where("status").in(BetStatus.WON, BetStatus.LOST)
+                .and("settledAt").ne(null).lt(migration.getDate("cutoff"));
+        if (lastBetId != null) {
+            criteria.and("_id").gt(new ObjectId(lastBetId));
+        }
+        Query settled = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .cursorBatchSize(PROFIT_BACKFILL_CHUNK_SIZE);
+
+        long count = 0;
+        List<Bet> chunk = new ArrayList<>(PROFIT_BACKFILL_CHUNK_SIZE);
+        try (Stream<Bet> bets = mongoTemplate.stream(settled, Bet.class)) {
+            for (Bet bet : (Iterable<Bet>) bets::iterator) {
+                chunk.add(bet);
+                if (chunk.size() == PROFIT_BACKFILL_CHUNK_SIZE) {
+                    recordProfitChunk(chunk);
+                    count += chunk.size();
+                    chunk.clear();
+                }
+            }
+        }
+        recordProfitChunk(chunk);
+        count += chunk.size();
+
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(PROFIT_BACKFILL_MIGRATION)),
+                new Update().set("completedAt", new Date()),
+                MIGRATIONS_COLLECTION);
+
+        log.info("Profit stats backfill completed ({} bets).", count);
+    }
+
+    /**
+     * Record one chunk, checkpoint it, then drop its markers: a chunk is only
+     * ever re-run while its markers are still in place
+     */
+    private void recordProfitChunk(List<Bet> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        String lastBetId = chunk.get(chunk.size() - 1).getId();
+        ChunkMarker marker = new ChunkMarker(PROFIT_BACKFILL_MIGRATION, lastBetId);
+
+        profitStatsService.recordSettledBets(marker, chunk);
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(PROFIT_BACKFILL_MIGRATION)),
+                new Update().set("lastBetId", lastBetId),
+                MIGRATIONS_COLLECTION);
+        profitStatsService.releaseChunkMarkers(marker, chunk);
+    }
 }
@@ -0,0 +1,80 @@
+package com.coticbet.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Bounded pool of virtual threads used to write settlement partitions
+     * concurrently. Pool size matches the number of partitions.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService settlementExecutor(@Value("${app.settlement.parallelism:16}") int parallelism) {
+        return Executors.newFixedThreadPool(parallelism, Thread.ofVirtual().name("settlement-", 0).factory());
+    }
+
+    /**
+     * Runs settlement jobs in the background, one virtual thread per job
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService settlementJobExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("settlement-job-", 0).factory());
+    }
+
+    /**
+     * Executor for @Async badge checks. A fixed number of virtual threads
+     * drain a bounded queue; once it is full the publishing thread runs the
+     * task itself, which slows settlement down instead of piling up work.
+     * Queued tasks are drained on graceful shutdown.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor badgeExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${app.badges.concurrency:8}") int concurrency,
+            @Value("${app.badges.queue-capacity:1000}") int queueCapacity) {
+        Timer latency = Timer.builder("badge.tasks.latency")
+                .description("Time from submission to completion of badge checks")
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadFactory(Thread.ofVirtual().name("badge-", 0).factory());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(task -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                try {
+                    task.run();
+                } finally {
+                    latency.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        Gauge.builder("badge.tasks.queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Badge checks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("badge.tasks.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Badge checks currently running")
+                .register(meterRegistry);
+
+        return executor;
+    }
+}
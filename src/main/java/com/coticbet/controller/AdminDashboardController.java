@@ -1,13 +1,21 @@
 package com.coticbet.controller;
 
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.coticbet.dto.response.HouseStatisticsResponse;
+import com.coticbet.dto.response.LeaderboardEntry;
+import com.coticbet.exception.BusinessException;
 import com.coticbet.service.AdminDashboardService;
+import com.coticbet.service.LeaderboardService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -18,9 +26,26 @@ import lombok.RequiredArgsConstructor;
 public class AdminDashboardController {
 
     private final AdminDashboardService adminDashboardService;
+    private final LeaderboardService leaderboardService;
 
     @GetMapping("/statistics")
     public ResponseEntity<HouseStatisticsResponse> getHouseStatistics() {
         return ResponseEntity.ok(adminDashboardService.getHouseStatistics());
     }
+
+    /**
+     * Profit or loss ranking over a custom range of days (both inclusive)
+     */
+    @GetMapping("/leaderboard")
+    public ResponseEntity<List<LeaderboardEntry>> getLeaderboard(
+            @RequestParam(defaultValue = "profit") String type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        boolean profit = switch (type.toLowerCase()) {
+            case "profit" -> true;
+            case "loss" -> false;
+            default -> throw new BusinessException("Unknown leaderboard type: " + type);
+        };
+        return ResponseEntity.ok(leaderboardService.getProfitRanking(from, to, profit));
+    }
 }
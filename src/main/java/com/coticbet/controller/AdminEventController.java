@@ -1,7 +1,6 @@
 package com.coticbet.controller;
 
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +17,7 @@ import com.coticbet.dto.request.CreateEventRequest;
 import com.coticbet.dto.request.SettleEventRequest;
 import com.coticbet.dto.request.UpdateEventStatusRequest;
 import com.coticbet.dto.response.EventResponse;
+import com.coticbet.dto.response.SettlementJobResponse;
 import com.coticbet.service.EventService;
 import com.coticbet.service.SettlementService;
 
@@ -56,10 +56,25 @@ public class AdminEventController {
     }
 
     @PostMapping("/{id}/settle")
-    public ResponseEntity<Map<String, String>> settleEvent(
+    public ResponseEntity<SettlementJobResponse> settleEvent(
             @PathVariable String id,
             @Valid @RequestBody SettleEventRequest request) {
-        settlementService.settleEvent(id, request.getWinnerOptionId());
-        return ResponseEntity.ok(Map.of("message", "Event settled successfully"));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(settlementService.settleEvent(id, request.getWinnerOptionId()));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<SettlementJobResponse> cancelEvent(@PathVariable String id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(settlementService.cancelEvent(id));
+    }
+
+    @GetMapping("/{id}/settlement")
+    public ResponseEntity<SettlementJobResponse> getSettlementJob(@PathVariable String id) {
+        return ResponseEntity.ok(settlementService.getLatestJob(id));
+    }
+
+    @PostMapping("/{id}/settlement/resume")
+    public ResponseEntity<SettlementJobResponse> resumeSettlementJob(@PathVariable String id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(settlementService.resumeJob(id));
     }
 }
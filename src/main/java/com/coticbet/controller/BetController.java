@@ -9,14 +9,17 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.coticbet.domain.entity.User;
 import com.coticbet.dto.request.PlaceBetRequest;
 import com.coticbet.dto.response.BetResponse;
+import com.coticbet.exception.BusinessException;
 import com.coticbet.security.CustomUserDetailsService;
 import com.coticbet.service.BetService;
+import com.coticbet.service.IdempotencyService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -26,16 +29,31 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class BetController {
 
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+
     private final BetService betService;
+    private final IdempotencyService idempotencyService;
     private final CustomUserDetailsService userDetailsService;
 
     @PostMapping
     public ResponseEntity<BetResponse> placeBet(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody PlaceBetRequest request) {
         User user = userDetailsService.getUserByEmail(userDetails.getUsername());
+
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(betService.placeBet(user.getId(), request));
+        }
+
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BusinessException("Idempotency-Key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(betService.placeBet(user.getId(), request));
+                .body(idempotencyService.placeOnce(user.getId(), idempotencyKey, request,
+                        (betId, fence) -> betService.placeBet(user.getId(), request, betId, fence)));
     }
 
     @GetMapping
@@ -29,4 +29,9 @@ public class EventController {
     public ResponseEntity<EventResponse> getEvent(@PathVariable String id) {
         return ResponseEntity.ok(eventService.getEventById(id));
     }
+
+    @GetMapping("/{id}/snapshot")
+    public ResponseEntity<EventResponse> getEventSnapshot(@PathVariable String id) {
+        return ResponseEntity.ok(eventService.getEventSnapshot(id));
+    }
 }
@@ -3,12 +3,17 @@ package com.coticbet.controller;
 import java.util.List;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.coticbet.domain.entity.User;
 import com.coticbet.dto.response.LeaderboardEntry;
+import com.coticbet.dto.response.MyLeaderboardResponse;
+import com.coticbet.security.CustomUserDetailsService;
 import com.coticbet.service.LeaderboardService;
 
 import lombok.RequiredArgsConstructor;
@@ -19,6 +24,7 @@ import lombok.RequiredArgsConstructor;
 public class LeaderboardController {
 
     private final LeaderboardService leaderboardService;
+    private final CustomUserDetailsService userDetailsService;
 
     @GetMapping
     public ResponseEntity<List<LeaderboardEntry>> getLeaderboard(
@@ -32,4 +38,15 @@ public class LeaderboardController {
 
         return ResponseEntity.ok(entries);
     }
+
+    /**
+     * Caller's rank on each board with up to neighbours users around them
+     */
+    @GetMapping("/me")
+    public ResponseEntity<MyLeaderboardResponse> getMyRanking(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "2") int neighbours) {
+        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
+        return ResponseEntity.ok(leaderboardService.getMyRanking(user.getId(), neighbours));
+    }
 }
@@ -0,0 +1,39 @@
+package com.coticbet.domain.entity;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Embedded counters behind the history-based badges, kept up to date on bet
+ * placement and settlement so badge checks never scan the bet history.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BadgeProgress {
+
+    /**
+     * Consecutive LOST bets since the last WON bet (MICK_JAGGER)
+     */
+    private int lossStreak;
+
+    /**
+     * Bets placed with amount <= R$1.00 (JULIUS)
+     */
+    private int microBetCount;
+
+    /**
+     * Day of the current work-hour bet count (REUNIAO_EMAIL)
+     */
+    private LocalDate workHourBetDay;
+
+    /**
+     * Bets placed between 09:00 and 18:00 on workHourBetDay
+     */
+    private int workHourBetCount;
+}
@@ -6,6 +6,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.coticbet.domain.enums.BetStatus;
@@ -21,6 +23,16 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "bets")
+@CompoundIndexes({
+        // Settlement lookups: pending bets on an event, streamed in _id order.
+        // Partial indexes only hold PENDING bets, so they shrink as bets settle.
+        @CompoundIndex(name = "pending_legs_event", def = "{'legs.eventId': 1, '_id': 1}",
+                partialFilter = "{'status': 'PENDING'}"),
+        @CompoundIndex(name = "pending_legacy_event", def = "{'eventId': 1, '_id': 1}",
+                partialFilter = "{'status': 'PENDING'}"),
+        // Ranking aggregations over a settlement date range
+        @CompoundIndex(name = "settled_at_status", def = "{'settledAt': 1, 'status': 1}")
+})
 public class Bet {
 
     @Id
@@ -65,6 +77,12 @@ public class Bet {
 
     private LocalDateTime settledAt;
 
+    /**
+     * Settlement job that settled the bet, so a resumed job can find the bets
+     * of its interrupted chunk that were already written
+     */
+    private String settlementJobId;
+
     // ==================== LEGACY FIELDS (for backward compatibility)
     // ====================
     // These fields are deprecated and will be removed in future versions.
@@ -46,6 +46,12 @@ public class Event {
 
     private String winnerOptionId;
 
+    /**
+     * Settlement job that moved the event to SETTLED or CANCELED. Only that
+     * job may settle the event's bets.
+     */
+    private String settlementJobId;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -2,6 +2,9 @@ package com.coticbet.domain.entity;
 
 import java.math.BigDecimal;
 
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,10 +20,16 @@ public class EventOption {
 
     private String name;
 
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal currentOdd;
 
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal seedOdd;
 
+    /**
+     * Stored as Decimal128 so bets can $inc it in place (options.$.totalStaked)
+     */
     @Builder.Default
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal totalStaked = BigDecimal.ZERO;
 }
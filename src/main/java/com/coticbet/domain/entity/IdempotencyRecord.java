@@ -0,0 +1,72 @@
+package com.coticbet.domain.entity;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.coticbet.domain.enums.IdempotencyStatus;
+import com.coticbet.dto.response.BetResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Client-supplied Idempotency-Key of a bet placement and the response that was
+ * returned for it. The unique (userId, key) index guarantees a key is only
+ * ever executed once per user at a time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "bet_idempotency_keys")
+@CompoundIndex(name = "user_key_unique", def = "{'userId': 1, 'key': 1}", unique = true)
+public class IdempotencyRecord {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String key;
+
+    /**
+     * SHA-256 of the request body; reusing the key for another bet is rejected
+     */
+    private String requestHash;
+
+    /**
+     * Id the bet is saved with, so an interrupted attempt can be resolved
+     */
+    private String betId;
+
+    @Builder.Default
+    private IdempotencyStatus status = IdempotencyStatus.IN_PROGRESS;
+
+    /**
+     * Original response, replayed for retries once status is COMPLETED
+     */
+    private BetResponse response;
+
+    /**
+     * While IN_PROGRESS, retries wait until this instant before the key may be
+     * reclaimed
+     */
+    private LocalDateTime leaseExpiresAt;
+
+    /**
+     * Abandoned bet ids whose stake was already given back, so a debit is
+     * refunded once even when the attempt and the retry that reclaimed it
+     * both try
+     */
+    private Set<String> refundedBetIds;
+
+    @Indexed(expireAfter = "1d")
+    private LocalDateTime createdAt;
+}
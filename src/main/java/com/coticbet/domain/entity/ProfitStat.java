@@ -0,0 +1,53 @@
+package com.coticbet.domain.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import com.coticbet.domain.enums.ProfitPeriod;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Net profit of one user in one week or month, incremented by settlement.
+ * The id is derived from (userId, period, periodStart) so increments can be
+ * upserted without a lookup.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "profit_stats")
+@CompoundIndex(name = "period_start_profit", def = "{'period': 1, 'periodStart': 1, 'netProfit': -1}")
+public class ProfitStat {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private ProfitPeriod period;
+
+    private LocalDate periodStart;
+
+    /**
+     * Payouts minus stakes of the bets settled in the period
+     */
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal netProfit;
+
+    private LocalDateTime updatedAt;
+
+    public static String idOf(String userId, ProfitPeriod period, LocalDate periodStart) {
+        return userId + ":" + period + ":" + periodStart;
+    }
+}
@@ -0,0 +1,69 @@
+package com.coticbet.domain.entity;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.coticbet.domain.enums.SettlementJobStatus;
+import com.coticbet.domain.enums.SettlementJobType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Persisted progress of settling (or canceling) one event. Bets are processed
+ * in _id order and lastBetId is checkpointed after every flushed chunk, so an
+ * interrupted job resumes right after the last chunk that was fully written.
+ * The chunk being written is recorded in chunkEndBetId first, so a resumed job
+ * re-runs exactly that chunk before moving on.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "settlement_jobs")
+public class SettlementJob {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private String eventId;
+
+    private SettlementJobType type;
+
+    /**
+     * Winning option, only set for SETTLE jobs
+     */
+    private String winnerOptionId;
+
+    @Indexed
+    @Builder.Default
+    private SettlementJobStatus status = SettlementJobStatus.RUNNING;
+
+    /**
+     * Last bet of the last fully written chunk
+     */
+    private String lastBetId;
+
+    /**
+     * Last bet of the chunk being written, or of the last written chunk once
+     * lastBetId catches up with it
+     */
+    private String chunkEndBetId;
+
+    @Builder.Default
+    private long processedCount = 0;
+
+    private String error;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+}
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.coticbet.domain.enums.TransactionOrigin;
@@ -34,6 +35,11 @@ public class Transaction {
 
     private BigDecimal balanceAfter;
 
+    /**
+     * Bet (or request) behind this entry. A BET_WIN row for a bet also marks
+     * that bet's payout as done, which makes settlement safe to resume.
+     */
+    @Indexed
     private String referenceId;
 
     private LocalDateTime createdAt;
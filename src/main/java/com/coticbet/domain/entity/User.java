@@ -8,6 +8,8 @@ import java.util.List;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import com.coticbet.domain.enums.Role;
 
@@ -36,12 +38,21 @@ public class User {
     @Builder.Default
     private Role role = Role.USER;
 
+    /**
+     * Stored as Decimal128 so balance changes can be applied server-side with
+     * $inc and guarded with numeric comparisons.
+     */
     @Builder.Default
+    @Indexed
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal walletBalance = BigDecimal.ZERO;
 
     @Builder.Default
     private List<Badge> badges = new ArrayList<>();
 
+    @Builder.Default
+    private BadgeProgress badgeProgress = new BadgeProgress();
+
     private LocalDateTime lastDailyBonus;
 
     private LocalDateTime createdAt;
@@ -0,0 +1,10 @@
+package com.coticbet.domain.enums;
+
+/**
+ * Moments at which badge rules are evaluated.
+ */
+public enum BadgeTrigger {
+    BET_PLACED,
+    BET_WON,
+    BET_LOST
+}
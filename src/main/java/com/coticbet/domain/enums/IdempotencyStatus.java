@@ -0,0 +1,11 @@
+package com.coticbet.domain.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    /**
+     * The bet is saved under the record's betId; the key can no longer be
+     * reclaimed
+     */
+    PLACED,
+    COMPLETED
+}
@@ -0,0 +1,30 @@
+package com.coticbet.domain.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Leaderboard aggregation buckets.
+ */
+public enum ProfitPeriod {
+    WEEK,
+    MONTH;
+
+    /**
+     * First day of the bucket that contains the given day (weeks start on Monday)
+     */
+    public LocalDate startOf(LocalDate day) {
+        return switch (this) {
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * First day of the bucket that contains today
+     */
+    public LocalDate currentStart() {
+        return startOf(LocalDate.now());
+    }
+}
@@ -0,0 +1,7 @@
+package com.coticbet.domain.enums;
+
+public enum SettlementJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
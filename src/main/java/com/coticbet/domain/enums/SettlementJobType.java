@@ -0,0 +1,6 @@
+package com.coticbet.domain.enums;
+
+public enum SettlementJobType {
+    SETTLE,
+    CANCEL
+}
@@ -0,0 +1,107 @@
+package com.coticbet.domain.value;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Allocation-free fixed-point arithmetic for money and odds on the hot paths
+ * (only products that overflow a long fall back to BigDecimal).
+ *
+ * Values are plain {@code long}s in hundredths (cents for money, 1/100 for
+ * odds), matching the 2-decimal HALF_UP rounding the app applies everywhere.
+ * Convert with {@link #of(BigDecimal)} / {@link #toBigDecimal(long)} only at
+ * the persistence and DTO boundary.
+ */
+public final class FixedPoint {
+
+    public static final int SCALE = 2;
+    public static final long ONE = 100;
+
+    // 10^n for n = 0..18
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Hundredths of the given value, rounded HALF_UP.
+     */
+    public static long of(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP).movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long hundredths) {
+        return BigDecimal.valueOf(hundredths, SCALE);
+    }
+
+    /**
+     * a * b, rounded HALF_UP to hundredths.
+     */
+    public static long multiply(long a, long b) {
+        return divideHalfUp(Math.multiplyExact(a, b), ONE);
+    }
+
+    /**
+     * a / b, rounded HALF_UP to hundredths.
+     */
+    public static long divide(long a, long b) {
+        return divideHalfUp(Math.multiplyExact(a, ONE), b);
+    }
+
+    /**
+     * Product of all factors rounded HALF_UP to hundredths once at the end, i.e.
+     * the same result as multiplying the BigDecimals and calling
+     * setScale(2, HALF_UP). The exact product is kept in a long while it fits;
+     * only huge parlays fall back to BigDecimal.
+     */
+    public static long product(long[] factors) {
+        long exact = 1;
+        int scale = 0;
+
+        for (long factor : factors) {
+            long high = Math.multiplyHigh(exact, factor);
+            long low = exact * factor;
+            int nextScale = scale + SCALE;
+            // Overflow unless the high word is just the sign extension of the low word
+            if (high != (low >> 63) || nextScale - SCALE >= POWERS_OF_TEN.length) {
+                return slowProduct(factors);
+            }
+            exact = low;
+            scale = nextScale;
+        }
+
+        return scale == 0 ? exact * ONE : divideHalfUp(exact, POWERS_OF_TEN[scale - SCALE]);
+    }
+
+    /**
+     * Integer division rounding half away from zero (HALF_UP).
+     */
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        long absRemainder = Math.abs(remainder);
+        if (absRemainder >= Math.abs(divisor) - absRemainder) {
+            return quotient + ((dividend ^ divisor) < 0 ? -1 : 1);
+        }
+        return quotient;
+    }
+
+    private static long slowProduct(long[] factors) {
+        BigDecimal product = BigDecimal.ONE;
+        for (long factor : factors) {
+            product = product.multiply(toBigDecimal(factor));
+        }
+        return of(product);
+    }
+}
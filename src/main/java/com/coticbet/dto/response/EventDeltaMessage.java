@@ -0,0 +1,43 @@
+package com.coticbet.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact update published on /topic/events/delta when only option pricing
+ * changed; /topic/events keeps carrying the full EventResponse.
+ * Clients apply it on top of the state with sequence - 1; on a gap they
+ * resync from GET /api/events/{id}/snapshot.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventDeltaMessage {
+
+    public static final String TYPE = "EVENT_DELTA";
+
+    @Builder.Default
+    private String type = TYPE;
+    private String eventId;
+    private long sequence;
+    private List<OptionDelta> options;
+
+    /**
+     * Changed fields of a single option
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OptionDelta {
+        private String id;
+        private BigDecimal currentOdd;
+        private BigDecimal totalStaked;
+    }
+}
@@ -26,4 +26,7 @@ public class EventResponse {
     private LocalDateTime commenceTime;
     private List<EventOptionResponse> options;
     private String winnerOptionId;
+
+    // Position in the /topic/events and /topic/events/delta streams (null outside of them)
+    private Long sequence;
 }
@@ -0,0 +1,20 @@
+package com.coticbet.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardPositionResponse {
+
+    // Null when the user is not on this board
+    private Integer rank;
+    private int totalPlayers;
+    private List<LeaderboardEntry> entries;
+}
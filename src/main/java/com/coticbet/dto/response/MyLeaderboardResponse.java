@@ -0,0 +1,17 @@
+package com.coticbet.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MyLeaderboardResponse {
+
+    private LeaderboardPositionResponse wealth;
+    private LeaderboardPositionResponse profit;
+    private LeaderboardPositionResponse loss;
+}
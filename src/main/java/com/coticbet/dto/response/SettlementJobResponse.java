@@ -0,0 +1,29 @@
+package com.coticbet.dto.response;
+
+import java.time.LocalDateTime;
+
+import com.coticbet.domain.enums.SettlementJobStatus;
+import com.coticbet.domain.enums.SettlementJobType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementJobResponse {
+
+    private String id;
+    private String eventId;
+    private SettlementJobType type;
+    private String winnerOptionId;
+    private SettlementJobStatus status;
+    private long processedCount;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
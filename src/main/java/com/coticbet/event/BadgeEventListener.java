@@ -11,7 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Async listener for badge-related events.
- * Runs in separate thread to not block main operations.
+ * Runs on the bounded badgeExecutor to not block main operations.
  */
 @Slf4j
 @Component
@@ -20,13 +20,27 @@ public class BadgeEventListener {
 
     private final BadgeService badgeService;
 
-    @Async
+    @Async("badgeExecutor")
     @EventListener
-    public void handleBetSettled(BetSettledEvent event) {
-        log.debug("Processing badge check for bet: {}", event.getBet().getId());
+    public void handleBetsSettled(BetsSettledEvent event) {
+        event.getBetsByUser().forEach((userId, settledBets) -> {
+            log.debug("Processing badge check for {} bets of user: {}", settledBets.size(), userId);
+
+            try {
+                badgeService.checkBadgesAfterBetsSettled(userId, settledBets);
+            } catch (Exception e) {
+                log.error("Error checking badges for user {}: {}", userId, e.getMessage(), e);
+            }
+        });
+    }
+
+    @Async("badgeExecutor")
+    @EventListener
+    public void handleBetPlaced(BetPlacedEvent event) {
+        log.debug("Processing badge check for placed bet: {}", event.getBet().getId());
 
         try {
-            badgeService.checkBadgesAfterBetSettled(event.getBet(), event.getEventTitle());
+            badgeService.checkBadgesAfterBetPlaced(event.getBet());
         } catch (Exception e) {
             log.error("Error checking badges for bet {}: {}", event.getBet().getId(), e.getMessage(), e);
         }
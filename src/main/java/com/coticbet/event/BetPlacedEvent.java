@@ -0,0 +1,22 @@
+package com.coticbet.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.coticbet.domain.entity.Bet;
+
+import lombok.Getter;
+
+/**
+ * Event published after a bet is placed and the user's badge counters are
+ * updated.
+ */
+@Getter
+public class BetPlacedEvent extends ApplicationEvent {
+
+    private final Bet bet;
+
+    public BetPlacedEvent(Object source, Bet bet) {
+        super(source);
+        this.bet = bet;
+    }
+}
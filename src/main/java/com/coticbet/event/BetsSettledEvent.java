@@ -0,0 +1,31 @@
+package com.coticbet.event;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.coticbet.domain.entity.Bet;
+
+import lombok.Getter;
+
+/**
+ * Event published once per settlement chunk with the bets it settled (WON or
+ * LOST), grouped by user.
+ */
+@Getter
+public class BetsSettledEvent extends ApplicationEvent {
+
+    private final Map<String, List<SettledBet>> betsByUser;
+
+    public BetsSettledEvent(Object source, Map<String, List<SettledBet>> betsByUser) {
+        super(source);
+        this.betsByUser = betsByUser;
+    }
+
+    /**
+     * A settled bet and the title shown for it in badge checks
+     */
+    public record SettledBet(Bet bet, String eventTitle) {
+    }
+}
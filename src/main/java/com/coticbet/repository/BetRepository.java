@@ -25,7 +25,7 @@ public interface BetRepository extends MongoRepository<Bet, String> {
 
     /**
      * Find bets that have a leg with the given eventId and bet status.
-     * Used for settling multiple bets when an event is settled.
+     * Backed by the partial pending_legs_event index when status is PENDING.
      */
     @Query("{ 'legs.eventId': ?0, 'status': ?1 }")
     List<Bet> findByLegsEventIdAndStatus(String eventId, BetStatus status);
@@ -0,0 +1,14 @@
+package com.coticbet.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.coticbet.domain.entity.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends MongoRepository<IdempotencyRecord, String> {
+
+    Optional<IdempotencyRecord> findByUserIdAndKey(String userId, String key);
+}
@@ -0,0 +1,18 @@
+package com.coticbet.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.coticbet.domain.entity.SettlementJob;
+import com.coticbet.domain.enums.SettlementJobStatus;
+
+@Repository
+public interface SettlementJobRepository extends MongoRepository<SettlementJob, String> {
+
+    List<SettlementJob> findByStatus(SettlementJobStatus status);
+
+    Optional<SettlementJob> findFirstByEventIdOrderByCreatedAtDesc(String eventId);
+}
@@ -1,5 +1,6 @@
 package com.coticbet.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -8,6 +9,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import com.coticbet.domain.entity.Transaction;
+import com.coticbet.domain.enums.TransactionOrigin;
 
 @Repository
 public interface TransactionRepository extends MongoRepository<Transaction, String> {
@@ -17,4 +19,6 @@ public interface TransactionRepository extends MongoRepository<Transaction, Stri
     Page<Transaction> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
 
     List<Transaction> findByReferenceId(String referenceId);
+
+    List<Transaction> findByReferenceIdInAndOrigin(Collection<String> referenceIds, TransactionOrigin origin);
 }
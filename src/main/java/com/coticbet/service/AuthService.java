@@ -26,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 public class AuthService {
 
         private final UserRepository userRepository;
+        private final WealthRankingService wealthRankingService;
         private final PasswordEncoder passwordEncoder;
         private final JwtUtil jwtUtil;
         private final AuthenticationManager authenticationManager;
@@ -55,6 +56,7 @@ public class AuthService {
                                 .build();
 
                 user = userRepository.save(user);
+                wealthRankingService.register(user);
                 log.info("[REGISTER] Usuário criado com sucesso - userId={}, email={}, role={}",
                                 user.getId(), user.getEmail(), user.getRole());
 
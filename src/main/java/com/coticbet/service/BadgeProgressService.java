@@ -0,0 +1,177 @@
+package com.coticbet.service;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.coticbet.domain.entity.BadgeProgress;
+import com.coticbet.domain.entity.Bet;
+import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.BetStatus;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Maintains the per-user {@link BadgeProgress} counters with atomic updates.
+ */
+@Service
+@RequiredArgsConstructor
+public class BadgeProgressService {
+
+    public static final BigDecimal MICRO_BET_MAX_AMOUNT = BigDecimal.ONE;
+    private static final LocalTime WORK_START = LocalTime.of(9, 0);
+    private static final LocalTime WORK_END = LocalTime.of(18, 0);
+
+    private static final String LOSS_STREAK = "badgeProgress.lossStreak";
+    private static final String MICRO_BET_COUNT = "badgeProgress.microBetCount";
+    private static final String WORK_HOUR_BET_DAY = "badgeProgress.workHourBetDay";
+    private static final String WORK_HOUR_BET_COUNT = "badgeProgress.workHourBetCount";
+    // Last settlement chunk applied to the loss streak, per process (see ChunkMarker)
+    private static final String STREAK_MARKERS = "streakChunks";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Count a newly placed bet towards the micro-bet and work-hour counters
+     */
+    public void recordBetPlaced(Bet bet) {
+        if (bet.getAmount().compareTo(MICRO_BET_MAX_AMOUNT) <= 0) {
+            mongoTemplate.updateFirst(byId(bet.getUserId()), new Update().inc(MICRO_BET_COUNT, 1), User.class);
+        }
+
+        if (isWorkHours(bet.getCreatedAt())) {
+            recordWorkHourBet(bet.getUserId(), bet.getCreatedAt().toLocalDate());
+        }
+    }
+
+    private void recordWorkHourBet(String userId, LocalDate day) {
+        // Same day: one more bet. Any other day: restart the count at 1.
+        // Tried twice in case a concurrent placement rolls the day over in between.
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Query sameDay = Query.query(Criteria.where("_id").is(userId).and(WORK_HOUR_BET_DAY).is(day));
+            if (mongoTemplate.updateFirst(sameDay, new Update().inc(WORK_HOUR_BET_COUNT, 1), User.class)
+                    .getMatchedCount() > 0) {
+                return;
+            }
+
+            Query otherDay = Query.query(Criteria.where("_id").is(userId).and(WORK_HOUR_BET_DAY).ne(day));
+            Update startDay = new Update().set(WORK_HOUR_BET_DAY, day).set(WORK_HOUR_BET_COUNT, 1);
+            if (mongoTemplate.updateFirst(otherDay, startDay, User.class).getMatchedCount() > 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Apply the outcome of settled bets to their users' loss streaks, one
+     * update per user. Bets must be in settlement order; still PENDING bets
+     * are ignored.
+     *
+     * Each update records the chunk marker and only matches while the chunk is
+     * not yet recorded, so re-running a chunk never counts it twice. Call
+     * {@link #releaseChunkMarkers(ChunkMarker, Collection)} once the chunk can
+     * no longer be re-run.
+     */
+    public void recordBetsSettled(ChunkMarker marker, List<Bet> bets) {
+        Map<String, StreakChange> changes = new LinkedHashMap<>();
+
+        for (Bet bet : bets) {
+            StreakChange change = changes.computeIfAbsent(bet.getUserId(), userId -> new StreakChange());
+            if (bet.getStatus() == BetStatus.WON) {
+                change.reset = true;
+                change.losses = 0;
+            } else if (bet.getStatus() == BetStatus.LOST) {
+                change.losses++;
+            }
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        boolean hasUpdates = false;
+
+        for (Map.Entry<String, StreakChange> entry : changes.entrySet()) {
+            StreakChange change = entry.getValue();
+            Update update = marker.apply(new Update(), STREAK_MARKERS);
+            if (change.reset) {
+                update.set(LOSS_STREAK, change.losses);
+            } else if (change.losses > 0) {
+                update.inc(LOSS_STREAK, change.losses);
+            } else {
+                continue;
+            }
+            bulk.updateOne(byId(entry.getKey()).addCriteria(marker.notApplied(STREAK_MARKERS)), update);
+            hasUpdates = true;
+        }
+
+        if (hasUpdates) {
+            bulk.execute();
+        }
+    }
+
+    /**
+     * Drop the marker {@link #recordBetsSettled(ChunkMarker, List)} left on
+     * these users. Markers of later chunks are left alone.
+     */
+    public void releaseChunkMarkers(ChunkMarker marker, Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(userIds)).addCriteria(marker.applied(STREAK_MARKERS)),
+                new Update().unset(marker.path(STREAK_MARKERS)),
+                User.class);
+    }
+
+    /**
+     * Same as {@link #releaseChunkMarkers(ChunkMarker, Collection)} for users
+     * that are no longer known, e.g. after a crash. Scans the users collection.
+     */
+    public void releaseChunkMarkers(ChunkMarker marker) {
+        mongoTemplate.updateMulti(
+                Query.query(marker.applied(STREAK_MARKERS)),
+                new Update().unset(marker.path(STREAK_MARKERS)),
+                User.class);
+    }
+
+    /**
+     * Weekday between 09:00 and 18:00
+     */
+    public static boolean isWorkHours(LocalDateTime time) {
+        if (time == null) {
+            return false;
+        }
+
+        DayOfWeek dayOfWeek = time.getDayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+            return false;
+        }
+
+        LocalTime localTime = time.toLocalTime();
+        return localTime.isAfter(WORK_START) && localTime.isBefore(WORK_END);
+    }
+
+    private Query byId(String userId) {
+        return Query.query(Criteria.where("_id").is(userId));
+    }
+
+    /**
+     * Net effect of a batch of settled bets on one user's loss streak: losses
+     * after the last win, and whether a win reset the streak first
+     */
+    private static final class StreakChange {
+        private int losses;
+        private boolean reset;
+    }
+}
@@ -0,0 +1,38 @@
+package com.coticbet.service;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.coticbet.domain.entity.BadgeProgress;
+import com.coticbet.domain.entity.Bet;
+import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.BadgeTrigger;
+import com.coticbet.domain.enums.BadgeType;
+
+/**
+ * Declarative badge rule: the badge it awards, the triggers it is evaluated
+ * on and the condition, which may only read the bet that fired the trigger,
+ * the user's badge counters and the badges already earned.
+ */
+public record BadgeRule(BadgeType badge, Set<BadgeTrigger> triggers, Predicate<Context> condition) {
+
+    public static BadgeRule on(BadgeType badge, BadgeTrigger first, BadgeTrigger... rest) {
+        return new BadgeRule(badge, EnumSet.of(first, rest), context -> false);
+    }
+
+    public BadgeRule when(Predicate<Context> condition) {
+        return new BadgeRule(badge, triggers, condition);
+    }
+
+    /**
+     * What a rule can see when it is evaluated
+     */
+    public record Context(
+            User user,
+            BadgeProgress progress,
+            Set<BadgeType> earned,
+            Bet bet,
+            String eventTitle) {
+    }
+}
@@ -1,21 +1,23 @@
 package com.coticbet.service;
 
 import java.math.BigDecimal;
-import java.time.DayOfWeek;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import com.coticbet.domain.entity.Badge;
+import com.coticbet.domain.entity.BadgeProgress;
 import com.coticbet.domain.entity.Bet;
 import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.BadgeTrigger;
 import com.coticbet.domain.enums.BadgeType;
 import com.coticbet.domain.enums.BetStatus;
-import com.coticbet.domain.enums.TransactionOrigin;
-import com.coticbet.repository.BetRepository;
+import com.coticbet.event.BetsSettledEvent.SettledBet;
 import com.coticbet.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -27,197 +29,143 @@ import lombok.extern.slf4j.Slf4j;
 public class BadgeService {
 
     private final UserRepository userRepository;
-    private final BetRepository betRepository;
     private final WalletService walletService;
     private final WebSocketService webSocketService;
 
     private static final int PLATINUM_THRESHOLD = 10;
 
+    // Rule thresholds, shared instead of allocated on every check
+    private static final BigDecimal ROBIN_HOOD_MIN_AMOUNT = new BigDecimal("500");
+    private static final BigDecimal ROBIN_HOOD_MAX_ODD = new BigDecimal("1.20");
+    private static final BigDecimal ILUDIDO_MIN_ODD = new BigDecimal("5.0");
+    private static final BigDecimal MAE_DINAH_MIN_ODD = new BigDecimal("10.0");
+
     /**
-     * Check and award badges after a bet is settled.
+     * Badge rules in evaluation order. DONO_DA_BANCA goes last so it sees the
+     * badges awarded earlier in the same pass. INIMIGO_DO_FIM has no rule yet:
+     * it needs the event commence time at placement.
      */
-    public void checkBadgesAfterBetSettled(Bet bet, String eventTitle) {
-        User user = userRepository.findById(bet.getUserId()).orElse(null);
-        if (user == null)
-            return;
+    private static final List<BadgeRule> RULES = List.of(
+            // MICK_JAGGER: 5 consecutive LOST bets
+            BadgeRule.on(BadgeType.MICK_JAGGER, BadgeTrigger.BET_LOST)
+                    .when(ctx -> ctx.progress().getLossStreak() >= 5),
 
-        List<Bet> userBets = betRepository.findByUserId(user.getId(), Sort.by(Sort.Direction.DESC, "createdAt"));
+            // ROBIN_HOOD_REVERSO: Lose bet > R$500 with Odd < 1.20
+            BadgeRule.on(BadgeType.ROBIN_HOOD_REVERSO, BadgeTrigger.BET_LOST)
+                    .when(ctx -> ctx.bet().getAmount().compareTo(ROBIN_HOOD_MIN_AMOUNT) > 0
+                            && oddOf(ctx.bet()) != null && oddOf(ctx.bet()).compareTo(ROBIN_HOOD_MAX_ODD) < 0),
 
-        // Check each badge rule
-        if (bet.getStatus() == BetStatus.LOST) {
-            checkMickJagger(user, userBets);
-            checkRobinHoodReverso(user, bet);
-            checkIludido(user, bet);
-        }
-
-        if (bet.getStatus() == BetStatus.WON) {
-            checkMaeDinah(user, bet);
-            checkPuxaSaco(user, bet, eventTitle);
-        }
+            // ILUDIDO: Lose bet with Odd > 5.0
+            BadgeRule.on(BadgeType.ILUDIDO, BadgeTrigger.BET_LOST)
+                    .when(ctx -> oddOf(ctx.bet()) != null && oddOf(ctx.bet()).compareTo(ILUDIDO_MIN_ODD) > 0),
 
-        // Always check
-        checkJulius(user, userBets);
-        checkInimigoDoFim(user, bet);
-        checkReuniaoEmail(user, userBets);
+            // MAE_DINAH: Win bet with Odd >= 10.0
+            BadgeRule.on(BadgeType.MAE_DINAH, BadgeTrigger.BET_WON)
+                    .when(ctx -> oddOf(ctx.bet()) != null && oddOf(ctx.bet()).compareTo(MAE_DINAH_MIN_ODD) >= 0),
 
-        // Check platinum
-        checkPlatinum(user);
-    }
+            // PUXA_SACO: Win bet on event with title containing "Chefe", "Gerente", or "Reunião"
+            BadgeRule.on(BadgeType.PUXA_SACO, BadgeTrigger.BET_WON)
+                    .when(ctx -> isBossEvent(ctx.eventTitle())),
 
-    /**
-     * MICK_JAGGER: 5 consecutive LOST bets
-     */
-    private void checkMickJagger(User user, List<Bet> bets) {
-        if (user.hasBadge(BadgeType.MICK_JAGGER))
-            return;
+            // JULIUS: 10 bets with amount <= R$1.00
+            BadgeRule.on(BadgeType.JULIUS, BadgeTrigger.BET_PLACED)
+                    .when(ctx -> ctx.progress().getMicroBetCount() >= 10),
 
-        int consecutiveLosses = 0;
-        for (Bet bet : bets) {
-            if (bet.getStatus() == BetStatus.LOST) {
-                consecutiveLosses++;
-                if (consecutiveLosses >= 5) {
-                    awardBadge(user, BadgeType.MICK_JAGGER);
-                    return;
-                }
-            } else if (bet.getStatus() == BetStatus.WON) {
-                break; // Reset on win
-            }
-        }
-    }
+            // REUNIAO_EMAIL: 5 bets between 09:00-18:00 on weekdays in same day
+            BadgeRule.on(BadgeType.REUNIAO_EMAIL, BadgeTrigger.BET_PLACED)
+                    .when(ctx -> BadgeProgressService.isWorkHours(ctx.bet().getCreatedAt())
+                            && ctx.bet().getCreatedAt().toLocalDate().equals(ctx.progress().getWorkHourBetDay())
+                            && ctx.progress().getWorkHourBetCount() >= 5),
 
-    /**
-     * ROBIN_HOOD_REVERSO: Lose bet > R$500 with Odd < 1.20
-     */
-    private void checkRobinHoodReverso(User user, Bet bet) {
-        if (user.hasBadge(BadgeType.ROBIN_HOOD_REVERSO))
-            return;
+            // DONO_DA_BANCA (Platinum): 10+ unique badges, excluding itself
+            BadgeRule.on(BadgeType.DONO_DA_BANCA,
+                    BadgeTrigger.BET_PLACED, BadgeTrigger.BET_WON, BadgeTrigger.BET_LOST)
+                    .when(ctx -> ctx.earned().size() >= PLATINUM_THRESHOLD));
 
-        BigDecimal oddToCheck = bet.getTotalOdd() != null ? bet.getTotalOdd() : bet.getLockedOdd();
-        if (bet.getAmount().compareTo(new BigDecimal("500")) > 0 &&
-                oddToCheck != null && oddToCheck.compareTo(new BigDecimal("1.20")) < 0) {
-            awardBadge(user, BadgeType.ROBIN_HOOD_REVERSO);
-        }
-    }
+    private static final Map<BadgeTrigger, List<BadgeRule>> RULES_BY_TRIGGER = indexByTrigger(RULES);
 
     /**
-     * ILUDIDO: Lose bet with Odd > 5.0
+     * Check and award badges after some of a user's bets are settled.
+     * The user is loaded once for the whole group and every settled bet runs
+     * the rules of its trigger in a single pass.
      */
-    private void checkIludido(User user, Bet bet) {
-        if (user.hasBadge(BadgeType.ILUDIDO))
+    public void checkBadgesAfterBetsSettled(String userId, List<SettledBet> settledBets) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null)
             return;
 
-        BigDecimal oddToCheck = bet.getTotalOdd() != null ? bet.getTotalOdd() : bet.getLockedOdd();
-        if (oddToCheck != null && oddToCheck.compareTo(new BigDecimal("5.0")) > 0) {
-            awardBadge(user, BadgeType.ILUDIDO);
+        Set<BadgeType> earned = earnedBadges(user);
+        for (SettledBet settled : settledBets) {
+            Bet bet = settled.bet();
+            if (bet.getStatus() == BetStatus.WON) {
+                evaluate(BadgeTrigger.BET_WON, user, earned, bet, settled.eventTitle());
+            } else if (bet.getStatus() == BetStatus.LOST) {
+                evaluate(BadgeTrigger.BET_LOST, user, earned, bet, settled.eventTitle());
+            }
         }
     }
 
     /**
-     * MAE_DINAH: Win bet with Odd >= 10.0
+     * Check and award badges after a bet is placed.
      */
-    private void checkMaeDinah(User user, Bet bet) {
-        if (user.hasBadge(BadgeType.MAE_DINAH))
+    public void checkBadgesAfterBetPlaced(Bet bet) {
+        User user = userRepository.findById(bet.getUserId()).orElse(null);
+        if (user == null)
             return;
 
-        BigDecimal oddToCheck = bet.getTotalOdd() != null ? bet.getTotalOdd() : bet.getLockedOdd();
-        if (oddToCheck != null && oddToCheck.compareTo(new BigDecimal("10.0")) >= 0) {
-            awardBadge(user, BadgeType.MAE_DINAH);
-        }
+        evaluate(BadgeTrigger.BET_PLACED, user, earnedBadges(user), bet, null);
     }
 
     /**
-     * JULIUS: 10 bets with amount <= R$1.00
+     * Run every rule registered for the trigger, skipping badges already earned
      */
-    private void checkJulius(User user, List<Bet> bets) {
-        if (user.hasBadge(BadgeType.JULIUS))
-            return;
-
-        long count = bets.stream()
-                .filter(b -> b.getAmount().compareTo(BigDecimal.ONE) <= 0)
-                .count();
-
-        if (count >= 10) {
-            awardBadge(user, BadgeType.JULIUS);
+    private void evaluate(BadgeTrigger trigger, User user, Set<BadgeType> earned, Bet bet, String eventTitle) {
+        BadgeProgress progress = user.getBadgeProgress() != null ? user.getBadgeProgress() : new BadgeProgress();
+        BadgeRule.Context context = new BadgeRule.Context(user, progress, earned, bet, eventTitle);
+
+        for (BadgeRule rule : RULES_BY_TRIGGER.get(trigger)) {
+            if (!earned.contains(rule.badge()) && rule.condition().test(context)) {
+                awardBadge(user, rule.badge());
+                earned.add(rule.badge());
+            }
         }
     }
 
-    /**
-     * INIMIGO_DO_FIM: Bet created < 2 min before event start
-     * (Would need event commenceTime - simplified check)
-     */
-    private void checkInimigoDoFim(User user, Bet bet) {
-        // This would require event data - simplified: just mark as checked
-        // In real implementation, would check bet.createdAt vs event.commenceTime
-    }
-
-    /**
-     * REUNIAO_EMAIL: 5 bets between 09:00-18:00 on weekdays in same day
-     */
-    private void checkReuniaoEmail(User user, List<Bet> bets) {
-        if (user.hasBadge(BadgeType.REUNIAO_EMAIL))
-            return;
-
-        LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        DayOfWeek dayOfWeek = today.getDayOfWeek();
-
-        // Only check on weekdays
-        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY)
-            return;
-
-        long workHoursBets = bets.stream()
-                .filter(b -> b.getCreatedAt() != null)
-                .filter(b -> b.getCreatedAt().toLocalDate().equals(today.toLocalDate()))
-                .filter(b -> {
-                    LocalTime time = b.getCreatedAt().toLocalTime();
-                    return time.isAfter(LocalTime.of(9, 0)) && time.isBefore(LocalTime.of(18, 0));
-                })
-                .count();
-
-        if (workHoursBets >= 5) {
-            awardBadge(user, BadgeType.REUNIAO_EMAIL);
+    private static Set<BadgeType> earnedBadges(User user) {
+        Set<BadgeType> earned = EnumSet.noneOf(BadgeType.class);
+        if (user.getBadges() != null) {
+            user.getBadges().forEach(badge -> earned.add(badge.getCode()));
         }
+        return earned;
     }
 
-    /**
-     * PUXA_SACO: Win bet on event with title containing "Chefe", "Gerente", or
-     * "Reunião"
-     */
-    private void checkPuxaSaco(User user, Bet bet, String eventTitle) {
-        if (user.hasBadge(BadgeType.PUXA_SACO))
-            return;
-
-        if (eventTitle != null) {
-            String title = eventTitle.toLowerCase();
-            if (title.contains("chefe") || title.contains("gerente") || title.contains("reunião")
-                    || title.contains("reuniao")) {
-                awardBadge(user, BadgeType.PUXA_SACO);
-            }
+    private static Map<BadgeTrigger, List<BadgeRule>> indexByTrigger(List<BadgeRule> rules) {
+        Map<BadgeTrigger, List<BadgeRule>> byTrigger = new EnumMap<>(BadgeTrigger.class);
+        for (BadgeTrigger trigger : BadgeTrigger.values()) {
+            byTrigger.put(trigger, rules.stream().filter(rule -> rule.triggers().contains(trigger)).toList());
         }
+        return byTrigger;
     }
 
-    /**
-     * DONO_DA_BANCA (Platinum): 10+ unique badges
-     */
-    private void checkPlatinum(User user) {
-        if (user.hasBadge(BadgeType.DONO_DA_BANCA))
-            return;
+    private static BigDecimal oddOf(Bet bet) {
+        return bet.getTotalOdd() != null ? bet.getTotalOdd() : bet.getLockedOdd();
+    }
 
-        // Count badges excluding platinum itself
-        long badgeCount = user.getBadges().stream()
-                .filter(b -> b.getCode() != BadgeType.DONO_DA_BANCA)
-                .count();
+    private static boolean isBossEvent(String eventTitle) {
+        if (eventTitle == null)
+            return false;
 
-        if (badgeCount >= PLATINUM_THRESHOLD) {
-            awardBadge(user, BadgeType.DONO_DA_BANCA);
-        }
+        String title = eventTitle.toLowerCase();
+        return title.contains("chefe") || title.contains("gerente") || title.contains("reunião")
+                || title.contains("reuniao");
     }
 
     /**
      * Award a badge to user with wallet credit and notification.
+     * The badge and its reward are written in one guarded update, so a badge
+     * already awarded by a concurrent check is neither added nor paid again.
      */
     private void awardBadge(User user, BadgeType badgeType) {
-        log.info("Awarding badge {} to user {}", badgeType, user.getEmail());
-
         // Create badge
         Badge badge = Badge.builder()
                 .code(badgeType)
@@ -225,16 +173,14 @@ public class BadgeService {
                 .rewardAmount(badgeType.getRewardAmount())
                 .build();
 
-        // Add to user
-        user.getBadges().add(badge);
-        userRepository.save(user);
+        // Add to user and credit wallet atomically
+        if (walletService.awardBadge(user.getId(), badge) == null) {
+            log.debug("Badge {} already awarded to user {}", badgeType, user.getEmail());
+            return;
+        }
 
-        // Credit wallet
-        walletService.credit(
-                user.getId(),
-                badgeType.getRewardAmount(),
-                TransactionOrigin.ACHIEVEMENT_REWARD,
-                "BADGE_" + badgeType.name());
+        log.info("Awarded badge {} to user {}", badgeType, user.getEmail());
+        user.getBadges().add(badge);
 
         // Notify user
         webSocketService.notifyUser(
@@ -1,14 +1,26 @@
 package com.coticbet.service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,14 +36,21 @@ import com.coticbet.domain.enums.LegStatus;
 import com.coticbet.domain.enums.PricingModel;
 import com.coticbet.domain.enums.Role;
 import com.coticbet.domain.enums.TransactionOrigin;
+import com.coticbet.domain.value.FixedPoint;
 import com.coticbet.dto.request.PlaceBetRequest;
 import com.coticbet.dto.request.PlaceBetRequest.BetSelection;
 import com.coticbet.dto.response.BetResponse;
 import com.coticbet.dto.response.BetResponse.LegResponse;
+import com.coticbet.event.BetPlacedEvent;
 import com.coticbet.exception.BusinessException;
+import com.coticbet.exception.InsufficientBalanceException;
 import com.coticbet.exception.ResourceNotFoundException;
 import com.coticbet.repository.BetRepository;
 import com.coticbet.repository.UserRepository;
+import com.coticbet.service.IdempotencyService.Fence;
+import com.coticbet.service.OddsBook.BookedEvent;
+import com.coticbet.service.OddsBook.BookedOption;
+import com.coticbet.service.ParimutuelOddsEngine.Quote;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,14 +60,40 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class BetService {
 
+    private static final Fence UNFENCED = new Fence() {
+        @Override
+        public void beforeDebit() {
+        }
+
+        @Override
+        public void afterSave() {
+        }
+    };
+
     private final BetRepository betRepository;
     private final UserRepository userRepository;
     private final EventService eventService;
     private final WalletService walletService;
     private final WebSocketService webSocketService;
+    private final ParimutuelOddsEngine oddsEngine;
+    private final OddsBook oddsBook;
+    private final BadgeProgressService badgeProgressService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MongoTemplate mongoTemplate;
 
     @Transactional
     public BetResponse placeBet(String userId, PlaceBetRequest request) {
+        return placeBet(userId, request, new ObjectId().toHexString(), UNFENCED);
+    }
+
+    /**
+     * Place a bet saved under the given id. The id is also the reference of the
+     * stake debit, so an interrupted placement can be traced from either side.
+     * A bet saved but rejected by the fence is deleted again before anything
+     * else sees it.
+     */
+    @Transactional
+    public BetResponse placeBet(String userId, PlaceBetRequest request, String betId, Fence fence) {
         log.info("[BET] Iniciando aposta - userId={}, tipo={}, valor={}, seleções={}",
                 userId, request.getSelections().size() == 1 ? "SINGLE" : "MULTIPLE",
                 request.getAmount(), request.getSelections().size());
@@ -70,7 +115,7 @@ public class BetService {
         }
 
         // Validate: no duplicate events in multiple bet
-        Set<String> eventIds = new HashSet<>();
+        Set<String> eventIds = new LinkedHashSet<>();
         for (BetSelection sel : selections) {
             if (!eventIds.add(sel.getEventId())) {
                 throw new BusinessException("Cannot select multiple options from the same event");
@@ -80,73 +125,59 @@ public class BetService {
         // Determine bet type
         BetType betType = selections.size() == 1 ? BetType.SINGLE : BetType.MULTIPLE;
 
-        // Build legs and calculate total odd
+        // Build legs and calculate total odd (fixed-point hundredths until persisted)
         List<BetLeg> legs = new ArrayList<>();
-        BigDecimal totalOdd = BigDecimal.ONE;
-        List<Event> eventsToUpdate = new ArrayList<>();
+        long[] lockedOdds = new long[selections.size()];
 
-        for (BetSelection selection : selections) {
-            Event event = eventService.findEventById(selection.getEventId());
+        // Resolve every referenced event up front (odds book, then one $in query)
+        Map<String, BookedEvent> openEvents = findOpenEvents(eventIds);
 
-            // Validate event is open for betting
-            if (event.getStatus() != EventStatus.OPEN) {
-                throw new BusinessException("Event '" + event.getTitle() + "' is not open for betting");
-            }
+        for (int i = 0; i < selections.size(); i++) {
+            BetSelection selection = selections.get(i);
+            BookedEvent event = openEvents.get(selection.getEventId());
 
             // Find the selected option
-            EventOption selectedOption = event.getOptions().stream()
-                    .filter(opt -> opt.getId().equals(selection.getOptionId()))
-                    .findFirst()
+            BookedOption selectedOption = event.option(selection.getOptionId())
                     .orElseThrow(() -> new ResourceNotFoundException("Option", selection.getOptionId()));
 
             // Snapshot the locked odd
-            BigDecimal lockedOdd = selectedOption.getCurrentOdd();
-            totalOdd = totalOdd.multiply(lockedOdd);
+            lockedOdds[i] = selectedOption.currentOdd();
 
             // Create leg
             BetLeg leg = BetLeg.builder()
-                    .eventId(event.getId())
-                    .eventTitle(event.getTitle())
+                    .eventId(event.id())
+                    .eventTitle(event.title())
                     .chosenOptionId(selection.getOptionId())
-                    .chosenOptionLabel(selectedOption.getName())
-                    .lockedOdd(lockedOdd)
+                    .chosenOptionLabel(selectedOption.name())
+                    .lockedOdd(FixedPoint.toBigDecimal(lockedOdds[i]))
                     .status(LegStatus.PENDING)
                     .build();
 
             legs.add(leg);
-
-            // Update total staked on option
-            selectedOption.setTotalStaked(
-                    selectedOption.getTotalStaked().add(request.getAmount()));
-
-            // Recalculate odds if dynamic parimutuel
-            if (event.getPricingModel() == PricingModel.DYNAMIC_PARIMUTUEL) {
-                recalculateDynamicOdds(event);
-            }
-
-            eventsToUpdate.add(event);
         }
 
-        // Round total odd
-        totalOdd = totalOdd.setScale(2, RoundingMode.HALF_UP);
+        // Total odd is the product of the locked odds, rounded once
+        long totalOddHundredths = FixedPoint.product(lockedOdds);
+        BigDecimal totalOdd = FixedPoint.toBigDecimal(totalOddHundredths);
 
         // Calculate potential payout
-        BigDecimal potentialPayout = request.getAmount().multiply(totalOdd)
-                .setScale(2, RoundingMode.HALF_UP);
-
-        // Validate user has sufficient balance
-        if (!walletService.hasBalance(userId, request.getAmount())) {
-            log.warn("[BET] Saldo insuficiente - userId={}, valor={}", userId, request.getAmount());
-            throw new BusinessException("Insufficient balance");
-        }
+        BigDecimal potentialPayout = FixedPoint.toBigDecimal(
+                FixedPoint.multiply(FixedPoint.of(request.getAmount()), totalOddHundredths));
 
         log.debug("[BET] Validações OK - odd total={}, payout potencial={}", totalOdd, potentialPayout);
 
-        // Debit wallet
-        walletService.debit(userId, request.getAmount(), TransactionOrigin.BET_ENTRY, null);
+        // Debit wallet (balance check and decrement are a single atomic update)
+        fence.beforeDebit();
+        try {
+            walletService.debit(userId, request.getAmount(), TransactionOrigin.BET_ENTRY, betId);
+        } catch (InsufficientBalanceException e) {
+            log.warn("[BET] Saldo insuficiente - userId={}, valor={}", userId, request.getAmount());
+            throw e;
+        }
 
         // Create bet with legs
         Bet bet = Bet.builder()
+                .id(betId)
                 .userId(userId)
                 .type(betType)
                 .legs(legs)
@@ -166,34 +197,83 @@ public class BetService {
         }
 
         bet = betRepository.save(bet);
+        try {
+            fence.afterSave();
+        } catch (RuntimeException e) {
+            betRepository.deleteById(betId);
+            throw e;
+        }
+        badgeProgressService.recordBetPlaced(bet);
+        eventPublisher.publishEvent(new BetPlacedEvent(this, bet));
         log.info("[BET] Aposta criada com sucesso - betId={}, userId={}, tipo={}, valor={}, payout potencial={}",
                 bet.getId(), userId, betType, request.getAmount(), potentialPayout);
 
-        // Save all updated events and broadcast
-        for (Event event : eventsToUpdate) {
-            eventService.saveEvent(event);
+        // Increment stakes for all legs in one bulk write and broadcast the updated events
+        Map<String, String> stakedOptions = new LinkedHashMap<>();
+        legs.forEach(leg -> stakedOptions.put(leg.getEventId(), leg.getChosenOptionId()));
+
+        for (Event event : eventService.incrementOptionStakes(stakedOptions, request.getAmount())) {
+            // Reprice through the event's pool if dynamic parimutuel (persisted in batches)
+            if (event.getPricingModel() == PricingModel.DYNAMIC_PARIMUTUEL) {
+                Quote odds = oddsEngine.applyStake(event, stakedOptions.get(event.getId()));
+                event.getOptions().stream()
+                        .filter(opt -> odds.contains(opt.getId()))
+                        .forEach(opt -> opt.setCurrentOdd(FixedPoint.toBigDecimal(odds.oddOf(opt.getId()))));
+                oddsBook.updateOdds(event.getId(), odds);
+            }
+
             webSocketService.broadcastEventUpdate(eventService.toResponse(event));
         }
 
         return toBetResponse(bet);
     }
 
-    private void recalculateDynamicOdds(Event event) {
-        BigDecimal totalStakedOnEvent = event.getOptions().stream()
-                .map(EventOption::getTotalStaked)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        for (EventOption option : event.getOptions()) {
-            if (option.getTotalStaked().compareTo(BigDecimal.ZERO) > 0) {
-                // Odd = TotalOnEvent / TotalOnOption
-                BigDecimal newOdd = totalStakedOnEvent.divide(
-                        option.getTotalStaked(), 2, RoundingMode.HALF_UP);
-                option.setCurrentOdd(newOdd);
-            } else {
-                // Use seed odd when no stakes on this option
-                option.setCurrentOdd(option.getSeedOdd());
+    /**
+     * Resolve the events of a bet slip that are open for betting, keyed by id.
+     * Booked events come from the odds book; the rest are loaded with a single
+     * $in query, which also yields the proper error for closed or unknown events.
+     */
+    private Map<String, BookedEvent> findOpenEvents(Set<String> eventIds) {
+        Map<String, BookedEvent> openEvents = new HashMap<>();
+        List<String> notBooked = new ArrayList<>();
+
+        for (String eventId : eventIds) {
+            oddsBook.find(eventId).ifPresentOrElse(
+                    booked -> openEvents.put(eventId, booked),
+                    () -> notBooked.add(eventId));
+        }
+
+        if (notBooked.isEmpty()) {
+            return openEvents;
+        }
+
+        Map<String, Event> loaded = eventService.findEventsByIds(notBooked).stream()
+                .collect(Collectors.toMap(Event::getId, event -> event));
+
+        for (String eventId : notBooked) {
+            Event event = loaded.get(eventId);
+            if (event == null) {
+                throw new ResourceNotFoundException("Event", eventId);
             }
+            if (event.getStatus() != EventStatus.OPEN) {
+                throw new BusinessException("Event '" + event.getTitle() + "' is not open for betting");
+            }
+            openEvents.put(eventId, oddsBook.refresh(event));
+        }
+
+        return openEvents;
+    }
+
+    /**
+     * The user's bet with the given id, if it was saved
+     */
+    public Optional<BetResponse> findUserBet(String userId, String betId) {
+        if (betId == null) {
+            return Optional.empty();
         }
+        return betRepository.findById(betId)
+                .filter(bet -> userId.equals(bet.getUserId()))
+                .map(this::toBetResponse);
     }
 
     public List<BetResponse> getUserBets(String userId) {
@@ -202,21 +282,79 @@ public class BetService {
                 .collect(Collectors.toList());
     }
 
-    public List<Bet> getPendingBetsForEvent(String eventId) {
-        return betRepository.findByEventIdAndStatus(eventId, BetStatus.PENDING);
+    /**
+     * Stream pending bets on the given event, both legacy single bets and bets
+     * with a leg on it, through a cursor in _id order, fetching batchSize
+     * documents per round trip. Only bets after afterBetId are returned when it
+     * is set. The caller must close the stream.
+     */
+    public Stream<Bet> streamPendingBetsOnEvent(String eventId, String afterBetId, int batchSize) {
+        Criteria criteria = new Criteria().orOperator(
+                Criteria.where("eventId").is(eventId),
+                Criteria.where("legs.eventId").is(eventId))
+                .and("status").is(BetStatus.PENDING);
+        if (afterBetId != null) {
+            criteria.and("_id").gt(new ObjectId(afterBetId));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, Bet.class);
     }
 
     /**
-     * Find all pending bets that have a leg for the given event
+     * Bets of one settlement chunk, (afterBetId, upToBetId], for re-running it
+     * after a crash: the ones still pending on the event plus the ones the job
+     * already settled
      */
-    public List<Bet> findPendingBetsWithEventLeg(String eventId) {
-        return betRepository.findByLegsEventIdAndStatus(eventId, BetStatus.PENDING);
+    public Stream<Bet> streamSettlementChunk(String eventId, String jobId, String afterBetId, String upToBetId,
+            int batchSize) {
+        Criteria onEvent = new Criteria().orOperator(
+                Criteria.where("eventId").is(eventId),
+                Criteria.where("legs.eventId").is(eventId));
+        Criteria pendingOrSettledByJob = new Criteria().orOperator(
+                Criteria.where("status").is(BetStatus.PENDING),
+                Criteria.where("settlementJobId").is(jobId));
+        Criteria range = Criteria.where("_id").lte(new ObjectId(upToBetId));
+        if (afterBetId != null) {
+            range.gt(new ObjectId(afterBetId));
+        }
+
+        Query query = Query.query(new Criteria().andOperator(range, onEvent, pendingOrSettledByJob))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, Bet.class);
     }
 
     public Bet saveBet(Bet bet) {
         return betRepository.save(bet);
     }
 
+    /**
+     * Persist the settlement state (status, legs, odds, payout) of many bets as
+     * one unordered bulk write.
+     */
+    public void saveSettledBets(List<Bet> bets) {
+        if (bets.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Bet.class);
+        for (Bet bet : bets) {
+            bulk.updateOne(
+                    Query.query(Criteria.where("_id").is(bet.getId())),
+                    new Update()
+                            .set("status", bet.getStatus())
+                            .set("settledAt", bet.getSettledAt())
+                            .set("legs", bet.getLegs())
+                            .set("totalOdd", bet.getTotalOdd())
+                            .set("potentialPayout", bet.getPotentialPayout())
+                            .set("settlementJobId", bet.getSettlementJobId()));
+        }
+        bulk.execute();
+    }
+
     /**
      * Convert Bet entity to BetResponse DTO
      */
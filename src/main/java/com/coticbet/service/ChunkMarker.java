@@ -0,0 +1,43 @@
+package com.coticbet.service;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Idempotency marker for one chunk of a resumable bulk process, such as a
+ * settlement job. A process writes its chunks in ascending bet id order and
+ * names each chunk after its last bet id, so a document only has to remember
+ * the last chunk of each process applied to it: field.process = chunk.
+ * Re-running a chunk after a crash then matches no document it already
+ * updated.
+ *
+ * @param process id of the process, e.g. the settlement job id
+ * @param chunk   last bet id of the chunk
+ */
+public record ChunkMarker(String process, String chunk) {
+
+    /**
+     * Matches documents this chunk (or a later one) has not been applied to
+     */
+    public Criteria notApplied(String field) {
+        return Criteria.where(path(field)).not().gte(chunk);
+    }
+
+    /**
+     * Matches documents whose last applied chunk is this one
+     */
+    public Criteria applied(String field) {
+        return Criteria.where(path(field)).is(chunk);
+    }
+
+    /**
+     * Record the chunk as applied, in the same update that applies it
+     */
+    public Update apply(Update update, String field) {
+        return update.set(path(field), chunk);
+    }
+
+    public String path(String field) {
+        return field + "." + process;
+    }
+}
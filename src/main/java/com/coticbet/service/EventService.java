@@ -2,10 +2,20 @@ package com.coticbet.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import com.coticbet.domain.entity.Bet;
@@ -31,6 +41,9 @@ public class EventService {
     private final EventRepository eventRepository;
     private final BetRepository betRepository;
     private final WebSocketService webSocketService;
+    private final MongoTemplate mongoTemplate;
+    private final ParimutuelOddsEngine oddsEngine;
+    private final OddsBook oddsBook;
 
     public EventResponse createInternalEvent(CreateEventRequest request) {
         List<EventOption> options = request.getOptions().stream()
@@ -64,14 +77,39 @@ public class EventService {
         return toResponse(event);
     }
 
+    /**
+     * Move an event through PENDING, OPEN and LOCKED. SETTLED and CANCELED are
+     * only reached through a settlement job, which also settles or voids the
+     * event's bets.
+     */
     public EventResponse updateEventStatus(String eventId, EventStatus newStatus) {
+        if (newStatus == EventStatus.SETTLED || newStatus == EventStatus.CANCELED) {
+            throw new BusinessException(
+                    String.format("Use the settle or cancel endpoint to move an event to %s", newStatus));
+        }
+
         Event event = findEventById(eventId);
 
-        validateStatusTransition(event.getStatus(), newStatus);
+        EventStatus currentStatus = event.getStatus();
+        validateStatusTransition(currentStatus, newStatus);
 
-        event.setStatus(newStatus);
-        event.setUpdatedAt(LocalDateTime.now());
-        event = eventRepository.save(event);
+        // Only touch the status: a full save could clobber stakes or batched odds.
+        // Guarded by the status the transition was validated against, so a
+        // concurrent change (e.g. a settlement claim) is never overwritten.
+        event = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(eventId).and("status").is(currentStatus)),
+                new Update().set("status", newStatus).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                Event.class);
+        if (event == null) {
+            throw new BusinessException("Event status changed concurrently, please retry");
+        }
+
+        // Closed events no longer need a live parimutuel pool
+        if (newStatus != EventStatus.OPEN) {
+            oddsEngine.evict(eventId);
+        }
+        oddsBook.refresh(event);
 
         // Notify users with bets on this event when locked
         if (newStatus == EventStatus.LOCKED) {
@@ -84,6 +122,41 @@ public class EventService {
         return toResponse(event);
     }
 
+    /**
+     * Move an event to its final status on behalf of a settlement job. The
+     * update only matches while the event is unclaimed and either in one of
+     * the allowed statuses or already in the target one, or when this very job
+     * claimed it before (a resumed run), so exactly one job settles an event.
+     *
+     * @return the event after the update, or null if it is owned by another
+     *         job or not in an allowed status
+     */
+    public Event finalizeForSettlement(String eventId, String jobId, EventStatus status, String winnerOptionId,
+            Collection<EventStatus> allowedFrom) {
+        List<EventStatus> claimable = new ArrayList<>(allowedFrom);
+        claimable.add(status);
+
+        Criteria unclaimed = Criteria.where("settlementJobId").is(null).and("status").in(claimable);
+        Query query = Query.query(Criteria.where("_id").is(eventId)
+                .orOperator(unclaimed, Criteria.where("settlementJobId").is(jobId)));
+
+        Update update = new Update()
+                .set("status", status)
+                .set("settlementJobId", jobId)
+                .set("updatedAt", LocalDateTime.now());
+        if (winnerOptionId != null) {
+            update.set("winnerOptionId", winnerOptionId);
+        }
+
+        Event event = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Event.class);
+        if (event != null) {
+            oddsEngine.evict(eventId);
+            oddsBook.refresh(event);
+        }
+        return event;
+    }
+
     private void notifyUsersOfLockedEvent(Event event) {
         List<Bet> pendingBets = betRepository.findByEventIdAndStatus(event.getId(), BetStatus.PENDING);
 
@@ -115,13 +188,56 @@ public class EventService {
         return toResponse(findEventById(eventId));
     }
 
+    /**
+     * State of an event as last published on /topic/events, including its
+     * sequence number, so clients can resync after a gap in the delta stream.
+     */
+    public EventResponse getEventSnapshot(String eventId) {
+        return webSocketService.lastPublishedEvent(eventId)
+                .orElseGet(() -> getEventById(eventId));
+    }
+
     public Event findEventById(String eventId) {
         return eventRepository.findById(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Event", eventId));
     }
 
     public Event saveEvent(Event event) {
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        oddsBook.refresh(saved);
+        return saved;
+    }
+
+    /**
+     * Load several events with a single $in query. Unknown ids are omitted.
+     */
+    public List<Event> findEventsByIds(Collection<String> eventIds) {
+        List<Event> events = new ArrayList<>();
+        eventRepository.findAllById(eventIds).forEach(events::add);
+        return events;
+    }
+
+    /**
+     * Atomically add a stake to one option per event ($inc on
+     * options.$.totalStaked), as a single unordered bulk write, without
+     * rewriting the rest of the event documents.
+     *
+     * @param optionIdsByEvent eventId -> staked optionId
+     * @return the events as they are after the increments
+     */
+    public List<Event> incrementOptionStakes(Map<String, String> optionIdsByEvent, BigDecimal amount) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Event.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        optionIdsByEvent.forEach((eventId, optionId) -> bulk.updateOne(
+                Query.query(Criteria.where("_id").is(eventId).and("options.id").is(optionId)),
+                new Update()
+                        .inc("options.$.totalStaked", new Decimal128(amount))
+                        .set("updatedAt", now)));
+
+        bulk.execute();
+
+        return findEventsByIds(optionIdsByEvent.keySet());
     }
 
     private void validateStatusTransition(EventStatus current, EventStatus target) {
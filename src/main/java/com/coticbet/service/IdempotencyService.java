@@ -0,0 +1,318 @@
+package com.coticbet.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.coticbet.domain.entity.IdempotencyRecord;
+import com.coticbet.domain.entity.Transaction;
+import com.coticbet.domain.enums.IdempotencyStatus;
+import com.coticbet.domain.enums.TransactionOrigin;
+import com.coticbet.dto.request.PlaceBetRequest;
+import com.coticbet.dto.response.BetResponse;
+import com.coticbet.exception.BusinessException;
+import com.coticbet.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deduplicates bet placements retried with the same Idempotency-Key.
+ *
+ * Recent keys are answered from a bounded in-memory LRU cache; the
+ * bet_idempotency_keys collection (unique on userId + key) is the source of
+ * truth, so concurrent retries and restarts are covered as well.
+ *
+ * Each key is bound to a hash of its request body and to the id of the bet it
+ * places. An IN_PROGRESS record holds a short lease: once it expires, a retry
+ * resolves the record from that bet, or reclaims the key after refunding any
+ * debit the interrupted attempt left without a bet.
+ *
+ * The bet id doubles as a fencing token. An attempt renews its lease before
+ * debiting and moves the record to PLACED right after saving the bet, both
+ * only while the record still holds its bet id; a reclaimed attempt fails
+ * those checks, drops its bet and never keeps a stake that was refunded.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final MongoTemplate mongoTemplate;
+    private final BetService betService;
+    private final WalletService walletService;
+    private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+    private final Duration lease;
+    private final Map<String, CachedResponse> recentResponses;
+
+    public IdempotencyService(
+            IdempotencyRecordRepository idempotencyRecordRepository,
+            MongoTemplate mongoTemplate,
+            BetService betService,
+            WalletService walletService,
+            TransactionService transactionService,
+            ObjectMapper objectMapper,
+            @Value("${app.idempotency.lease:30s}") Duration lease,
+            @Value("${app.idempotency.cache-size:10000}") int cacheSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.betService = betService;
+        this.walletService = walletService;
+        this.transactionService = transactionService;
+        this.objectMapper = objectMapper;
+        this.lease = lease;
+        this.recentResponses = Collections.synchronizedMap(new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * A bet placement guarded by an idempotency record
+     */
+    @FunctionalInterface
+    public interface Placement {
+
+        /**
+         * Place the bet under betId. fence.beforeDebit() must run right before
+         * the stake is debited and fence.afterSave() right after the bet is
+         * saved; either throws once a retry has reclaimed the key.
+         */
+        BetResponse place(String betId, Fence fence);
+    }
+
+    public interface Fence {
+
+        void beforeDebit();
+
+        void afterSave();
+    }
+
+    /**
+     * Run the bet placement once per (userId, key). Replays return the original
+     * response without executing the placement again.
+     */
+    public BetResponse placeOnce(String userId, String key, PlaceBetRequest request, Placement placement) {
+        String cacheKey = userId + ":" + key;
+        String requestHash = hash(request);
+
+        CachedResponse cached = recentResponses.get(cacheKey);
+        if (cached != null) {
+            assertSameRequest(cached.requestHash(), requestHash);
+            log.info("[BET] Replay de aposta via cache - userId={}, idempotencyKey={}", userId, key);
+            return cached.response();
+        }
+
+        IdempotencyRecord record;
+        try {
+            record = idempotencyRecordRepository.insert(IdempotencyRecord.builder()
+                    .userId(userId)
+                    .key(key)
+                    .requestHash(requestHash)
+                    .betId(new ObjectId().toHexString())
+                    .status(IdempotencyStatus.IN_PROGRESS)
+                    .leaseExpiresAt(LocalDateTime.now().plus(lease))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DuplicateKeyException e) {
+            return resume(userId, key, cacheKey, requestHash, placement);
+        }
+
+        return execute(record, cacheKey, placement);
+    }
+
+    private BetResponse execute(IdempotencyRecord record, String cacheKey, Placement placement) {
+        BetResponse response;
+        try {
+            response = placement.place(record.getBetId(), new Fence() {
+                @Override
+                public void beforeDebit() {
+                    renewLease(record);
+                }
+
+                @Override
+                public void afterSave() {
+                    markPlaced(record);
+                }
+            });
+        } catch (RuntimeException e) {
+            // A bet that passed the fence is placed even if a later step failed
+            Optional<BetResponse> placed = betService.findUserBet(record.getUserId(), record.getBetId());
+            if (placed.isPresent()) {
+                complete(record, placed.get(), cacheKey);
+                throw e;
+            }
+
+            // Otherwise give back the stake and release the key so the client
+            // can retry, unless another request reclaimed it in the meantime
+            refundOrphanDebit(record, record.getBetId());
+            mongoTemplate.remove(ownedBy(record), IdempotencyRecord.class);
+            throw e;
+        }
+
+        complete(record, response, cacheKey);
+        return response;
+    }
+
+    private void renewLease(IdempotencyRecord record) {
+        long matched = mongoTemplate.updateFirst(
+                ownedBy(record).addCriteria(Criteria.where("status").is(IdempotencyStatus.IN_PROGRESS)),
+                new Update().set("leaseExpiresAt", LocalDateTime.now().plus(lease)),
+                IdempotencyRecord.class).getMatchedCount();
+        if (matched == 0) {
+            throw new BusinessException("A retry took over this Idempotency-Key");
+        }
+    }
+
+    /**
+     * Close the record to reclaims. A retry may already have resolved it from
+     * the saved bet, which leaves it owned by this attempt as well.
+     */
+    private void markPlaced(IdempotencyRecord record) {
+        long matched = mongoTemplate.updateFirst(
+                ownedBy(record).addCriteria(Criteria.where("status").is(IdempotencyStatus.IN_PROGRESS)),
+                new Update().set("status", IdempotencyStatus.PLACED).unset("leaseExpiresAt"),
+                IdempotencyRecord.class).getMatchedCount();
+        if (matched == 0 && !mongoTemplate.exists(ownedBy(record), IdempotencyRecord.class)) {
+            throw new BusinessException("A retry took over this Idempotency-Key");
+        }
+    }
+
+    private BetResponse resume(String userId, String key, String cacheKey, String requestHash,
+            Placement placement) {
+        IdempotencyRecord existing = idempotencyRecordRepository.findByUserIdAndKey(userId, key)
+                .orElseThrow(() -> new BusinessException("Idempotency-Key could not be resolved, please retry"));
+        assertSameRequest(existing.getRequestHash(), requestHash);
+
+        if (existing.getStatus() == IdempotencyStatus.COMPLETED) {
+            log.info("[BET] Replay de aposta - userId={}, idempotencyKey={}", userId, key);
+            recentResponses.put(cacheKey, new CachedResponse(requestHash, existing.getResponse()));
+            return existing.getResponse();
+        }
+
+        // The attempt holding the key may have placed the bet and died before completing the record
+        Optional<BetResponse> placed = betService.findUserBet(userId, existing.getBetId());
+        if (placed.isPresent()) {
+            log.info("[BET] Chave de idempotência resolvida pela aposta - userId={}, idempotencyKey={}, betId={}",
+                    userId, key, existing.getBetId());
+            complete(existing, placed.get(), cacheKey);
+            return placed.get();
+        }
+
+        if (existing.getLeaseExpiresAt() != null && existing.getLeaseExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new BusinessException("A bet with this Idempotency-Key is still being processed");
+        }
+
+        // Stale attempt: take the key over with a fresh bet id, so a late write
+        // of the abandoned bet can never be mistaken for ours
+        IdempotencyRecord claimed = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(existing.getId())
+                        .and("betId").is(existing.getBetId())
+                        .and("status").is(IdempotencyStatus.IN_PROGRESS)),
+                new Update()
+                        .set("betId", new ObjectId().toHexString())
+                        .set("leaseExpiresAt", LocalDateTime.now().plus(lease)),
+                FindAndModifyOptions.options().returnNew(true),
+                IdempotencyRecord.class);
+        if (claimed == null) {
+            throw new BusinessException("A bet with this Idempotency-Key is still being processed");
+        }
+
+        log.warn("[BET] Retomando chave de idempotência expirada - userId={}, idempotencyKey={}, betIdAbandonado={}",
+                userId, key, existing.getBetId());
+        // The abandoned attempt can no longer save its bet: it fails the fence
+        // and drops the bet, so its debit is an orphan
+        refundOrphanDebit(claimed, existing.getBetId());
+        return execute(claimed, cacheKey, placement);
+    }
+
+    /**
+     * Give back the stake an abandoned attempt debited without keeping its bet.
+     * The bet id is claimed on the record first, so the stake is refunded once.
+     */
+    private void refundOrphanDebit(IdempotencyRecord record, String betId) {
+        if (betId == null) {
+            return;
+        }
+
+        List<Transaction> ledger = transactionService.findByReferenceId(betId);
+        boolean refunded = ledger.stream().anyMatch(t -> t.getOrigin() == TransactionOrigin.BET_WIN);
+        Optional<BigDecimal> debited = ledger.stream()
+                .filter(t -> t.getOrigin() == TransactionOrigin.BET_ENTRY)
+                .map(Transaction::getAmount)
+                .findFirst();
+        if (debited.isEmpty() || refunded) {
+            return;
+        }
+
+        boolean claimed = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(record.getId()).and("refundedBetIds").ne(betId)),
+                new Update().addToSet("refundedBetIds", betId),
+                IdempotencyRecord.class).getModifiedCount() == 1;
+        if (claimed) {
+            walletService.credit(record.getUserId(), debited.get(), TransactionOrigin.BET_WIN, betId); // Refund
+            log.warn("[BET] Débito sem aposta estornado - userId={}, betId={}, valor={}",
+                    record.getUserId(), betId, debited.get());
+        }
+    }
+
+    private void complete(IdempotencyRecord record, BetResponse response, String cacheKey) {
+        mongoTemplate.updateFirst(
+                ownedBy(record),
+                new Update()
+                        .set("status", IdempotencyStatus.COMPLETED)
+                        .set("response", response)
+                        .unset("leaseExpiresAt"),
+                IdempotencyRecord.class);
+        recentResponses.put(cacheKey, new CachedResponse(record.getRequestHash(), response));
+    }
+
+    /**
+     * Matches the record only while this attempt still owns it
+     */
+    private Query ownedBy(IdempotencyRecord record) {
+        return Query.query(Criteria.where("_id").is(record.getId()).and("betId").is(record.getBetId()));
+    }
+
+    private void assertSameRequest(String storedHash, String requestHash) {
+        // Records written before request hashing carry no hash
+        if (storedHash != null && !storedHash.equals(requestHash)) {
+            throw new BusinessException("Idempotency-Key was already used for a different bet");
+        }
+    }
+
+    private String hash(PlaceBetRequest request) {
+        try {
+            byte[] body = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash bet request", e);
+        }
+    }
+
+    private record CachedResponse(String requestHash, BetResponse response) {
+    }
+}
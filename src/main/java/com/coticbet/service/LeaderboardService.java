@@ -1,26 +1,39 @@
 package com.coticbet.service;
 
 import java.math.BigDecimal;
-import java.time.DayOfWeek;
-import java.time.LocalDateTime;
-import java.time.temporal.TemporalAdjusters;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
-import com.coticbet.domain.entity.Bet;
 import com.coticbet.domain.entity.User;
 import com.coticbet.domain.enums.BetStatus;
+import com.coticbet.domain.enums.ProfitPeriod;
 import com.coticbet.domain.enums.Role;
 import com.coticbet.dto.response.LeaderboardEntry;
-import com.coticbet.repository.BetRepository;
+import com.coticbet.dto.response.LeaderboardPositionResponse;
+import com.coticbet.dto.response.MyLeaderboardResponse;
+import com.coticbet.exception.BusinessException;
 import com.coticbet.repository.UserRepository;
+import com.coticbet.service.ScoreBoard.Score;
+import com.coticbet.service.ScoreBoard.Window;
 
 import lombok.RequiredArgsConstructor;
 
@@ -28,38 +41,33 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class LeaderboardService {
 
+    private static final int TOP_SIZE = 10;
+    private static final int MAX_NEIGHBOURS = 10;
+
     private final UserRepository userRepository;
-    private final BetRepository betRepository;
+    private final ProfitStatsService profitStatsService;
+    private final WealthRankingService wealthRankingService;
+    private final MongoTemplate mongoTemplate;
 
     /**
      * Ranking by total wallet balance (O Magnata)
-     * No caching since wallet balances change frequently
+     * Served from the live wealth board; the bounded query only covers startup
      */
     public List<LeaderboardEntry> getWealthRanking() {
-        List<User> users = userRepository.findAll(Sort.by(Sort.Direction.DESC, "walletBalance"));
-
         List<LeaderboardEntry> entries = new ArrayList<>();
         int rank = 1;
 
-        for (User user : users) {
-            // Skip admins
-            if (user.getRole() == Role.ADMIN)
-                continue;
-
-            // Skip users with negative balance in wealth ranking
-            if (user.getWalletBalance().compareTo(BigDecimal.ZERO) < 0)
-                continue;
-
-            entries.add(LeaderboardEntry.builder()
-                    .rank(rank++)
-                    .userId(user.getId())
-                    .name(user.getName() != null ? user.getName() : user.getEmail().split("@")[0])
-                    .value(user.getWalletBalance())
-                    .valueLabel("R$ " + user.getWalletBalance().setScale(2).toString())
-                    .build());
+        if (!wealthRankingService.isLoaded()) {
+            for (User user : wealthRankingService.findTop(TOP_SIZE)) {
+                entries.add(wealthEntry(rank++, user.getId(), WealthRankingService.displayName(user),
+                        user.getWalletBalance()));
+            }
+            return entries;
+        }
 
-            if (rank > 10)
-                break; // Top 10
+        for (Score score : wealthRankingService.top(TOP_SIZE)) {
+            entries.add(wealthEntry(rank++, score.userId(), wealthRankingService.nameOf(score.userId()),
+                    score.value()));
         }
 
         return entries;
@@ -68,89 +76,171 @@ public class LeaderboardService {
     /**
      * Ranking by net profit - monthly (O Trader)
      */
-    @Cacheable(value = "leaderboard", key = "'profit_monthly'")
+    @Cacheable(value = "leaderboard",
+            key = "'profit_monthly_' + T(com.coticbet.domain.enums.ProfitPeriod).MONTH.currentStart()")
     public List<LeaderboardEntry> getProfitRanking() {
-        LocalDateTime startOfMonth = LocalDateTime.now()
-                .withDayOfMonth(1)
-                .withHour(0).withMinute(0).withSecond(0).withNano(0);
-
-        return calculateNetProfitRanking(startOfMonth, true);
+        return toProfitEntries(profitStatsService.topProfits(ProfitPeriod.MONTH, TOP_SIZE), 1);
     }
 
     /**
      * Ranking by net loss - weekly (Mão de Alface)
      */
-    @Cacheable(value = "leaderboard", key = "'loss_weekly'")
+    @Cacheable(value = "leaderboard",
+            key = "'loss_weekly_' + T(com.coticbet.domain.enums.ProfitPeriod).WEEK.currentStart()")
     public List<LeaderboardEntry> getLossRanking() {
-        LocalDateTime startOfWeek = LocalDateTime.now()
-                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
-                .withHour(0).withMinute(0).withSecond(0).withNano(0);
+        return toProfitEntries(profitStatsService.topLosses(ProfitPeriod.WEEK, TOP_SIZE), 1);
+    }
 
-        return calculateNetProfitRanking(startOfWeek, false);
+    /**
+     * Profit (or loss) ranking over an arbitrary range of settlement days,
+     * computed by an aggregation pipeline so only the top rows leave Mongo.
+     * Backs custom admin periods that the weekly and monthly boards don't cover.
+     */
+    @Cacheable(value = "leaderboard", key = "(#profit ? 'profit_' : 'loss_') + #from + '_' + #to")
+    public List<LeaderboardEntry> getProfitRanking(LocalDate from, LocalDate to, boolean profit) {
+        if (from.isAfter(to)) {
+            throw new BusinessException("'from' must not be after 'to'");
+        }
+
+        // Amounts are stored as strings, so convert before doing arithmetic
+        AggregationExpression amount = ConvertOperators.valueOf("amount").convertToDecimal();
+        AggregationExpression payout = ConvertOperators.valueOf("potentialPayout").convertToDecimal();
+        AggregationExpression betProfit = ConditionalOperators
+                .when(ComparisonOperators.valueOf("status").equalToValue(BetStatus.WON.name()))
+                .then(ArithmeticOperators.valueOf(payout).subtract(amount))
+                .otherwise(ArithmeticOperators.valueOf(amount).multiplyBy(-1));
+
+        // Admins are excluded up front, so they never take one of the top slots
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("settledAt").gte(from.atStartOfDay()).lt(to.plusDays(1).atStartOfDay())
+                        .and("status").in(BetStatus.WON.name(), BetStatus.LOST.name())
+                        .and("userId").nin(adminIds())),
+                Aggregation.project("userId").and(betProfit).as("profit"),
+                Aggregation.group("userId").sum("profit").as("netProfit"),
+                Aggregation.match(profit
+                        ? Criteria.where("netProfit").gt(0)
+                        : Criteria.where("netProfit").lt(0)),
+                Aggregation.sort(profit ? Sort.Direction.DESC : Sort.Direction.ASC, "netProfit"),
+                Aggregation.limit(TOP_SIZE),
+                // userId is the string form of the users' ObjectId
+                Aggregation.addFields()
+                        .addFieldWithValue("userObjectId", ConvertOperators.valueOf("_id").convertToObjectId())
+                        .build(),
+                Aggregation.lookup("users", "userObjectId", "_id", "user"),
+                Aggregation.unwind("user"),
+                Aggregation.project("netProfit").and("user.name").as("name").and("user.email").as("email"));
+
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        int rank = 1;
+
+        for (Document row : mongoTemplate.aggregate(aggregation, "bets", Document.class)) {
+            BigDecimal netProfit = row.get("netProfit", Decimal128.class).bigDecimalValue();
+            String name = row.getString("name") != null ? row.getString("name") : row.getString("email").split("@")[0];
+
+            entries.add(LeaderboardEntry.builder()
+                    .rank(rank++)
+                    .userId(row.getString("_id"))
+                    .name(name)
+                    .value(netProfit)
+                    .valueLabel(profitLabel(netProfit))
+                    .build());
+        }
+
+        return entries;
     }
 
-    private List<LeaderboardEntry> calculateNetProfitRanking(LocalDateTime since, boolean ascending) {
-        // Get all settled bets since the date
-        List<Bet> bets = betRepository.findAll().stream()
-                .filter(bet -> bet.getSettledAt() != null && bet.getSettledAt().isAfter(since))
-                .filter(bet -> bet.getStatus() == BetStatus.WON || bet.getStatus() == BetStatus.LOST)
-                .toList();
-
-        // Calculate net profit per user
-        Map<String, BigDecimal> userProfits = new HashMap<>();
-
-        for (Bet bet : bets) {
-            BigDecimal profit;
-
-            if (bet.getStatus() == BetStatus.WON) {
-                // Profit = payout - amount bet
-                profit = bet.getPotentialPayout().subtract(bet.getAmount());
-            } else {
-                // Loss = negative amount bet
-                profit = bet.getAmount().negate();
+    /**
+     * The user's own position on the wealth, monthly profit and weekly loss
+     * boards, each with up to neighbours users above and below
+     */
+    public MyLeaderboardResponse getMyRanking(String userId, int neighbours) {
+        int window = Math.max(0, Math.min(neighbours, MAX_NEIGHBOURS));
+
+        Window wealth = wealthRankingService.around(userId, window);
+        List<LeaderboardEntry> wealthEntries = new ArrayList<>();
+        if (wealth != null) {
+            int rank = wealth.firstRank();
+            for (Score score : wealth.scores()) {
+                wealthEntries.add(wealthEntry(rank++, score.userId(), wealthRankingService.nameOf(score.userId()),
+                        score.value()));
             }
-
-            userProfits.merge(bet.getUserId(), profit, BigDecimal::add);
         }
 
-        // Sort by profit (ascending for top profit, descending for top loss)
-        Comparator<Map.Entry<String, BigDecimal>> comparator = ascending
-                ? Map.Entry.<String, BigDecimal>comparingByValue().reversed()
-                : Map.Entry.comparingByValue();
-
-        // Filter based on ranking type:
-        // - For profit ranking (ascending=true): show only positive profits
-        // - For loss ranking (ascending=false): show only negative profits (losses)
-        List<Map.Entry<String, BigDecimal>> filteredEntries = userProfits.entrySet().stream()
-                .filter(entry -> ascending
-                        ? entry.getValue().compareTo(BigDecimal.ZERO) > 0 // Profit ranking: only positive
-                        : entry.getValue().compareTo(BigDecimal.ZERO) < 0) // Loss ranking: only negative
-                .sorted(comparator)
-                .limit(10)
-                .toList();
+        Window profit = profitStatsService.around(ProfitPeriod.MONTH, userId, window, false);
+        Window loss = profitStatsService.around(ProfitPeriod.WEEK, userId, window, true);
+
+        return MyLeaderboardResponse.builder()
+                .wealth(toPosition(wealth, wealthEntries))
+                .profit(toPosition(profit, toProfitEntries(profit)))
+                .loss(toPosition(loss, toProfitEntries(loss)))
+                .build();
+    }
+
+    private List<String> adminIds() {
+        Query query = Query.query(Criteria.where("role").is(Role.ADMIN));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, User.class).stream().map(User::getId).toList();
+    }
+
+    private static LeaderboardPositionResponse toPosition(Window window, List<LeaderboardEntry> entries) {
+        return LeaderboardPositionResponse.builder()
+                .rank(window != null ? window.rank() : null)
+                .totalPlayers(window != null ? window.total() : 0)
+                .entries(entries)
+                .build();
+    }
+
+    /**
+     * Drop every cached ranking once settled bets have changed the totals
+     */
+    @CacheEvict(value = "leaderboard", allEntries = true)
+    public void evictRankings() {
+    }
+
+    private List<LeaderboardEntry> toProfitEntries(Window window) {
+        return window != null ? toProfitEntries(window.scores(), window.firstRank()) : List.of();
+    }
+
+    private List<LeaderboardEntry> toProfitEntries(List<Score> scores, int firstRank) {
+        Map<String, User> users = new HashMap<>();
+        userRepository.findAllById(scores.stream().map(Score::userId).toList())
+                .forEach(user -> users.put(user.getId(), user));
 
         // Build response
         List<LeaderboardEntry> entries = new ArrayList<>();
-        int rank = 1;
+        int rank = firstRank;
 
-        for (Map.Entry<String, BigDecimal> entry : filteredEntries) {
-            User user = userRepository.findById(entry.getKey()).orElse(null);
-            if (user == null || user.getRole() == Role.ADMIN)
+        for (Score score : scores) {
+            User user = users.get(score.userId());
+            if (user == null)
                 continue;
 
             String name = user.getName() != null ? user.getName() : user.getEmail().split("@")[0];
-            String prefix = entry.getValue().compareTo(BigDecimal.ZERO) >= 0 ? "+ R$ " : "- R$ ";
-            String valueLabel = prefix + entry.getValue().abs().setScale(2).toString();
 
             entries.add(LeaderboardEntry.builder()
                     .rank(rank++)
                     .userId(user.getId())
                     .name(name)
-                    .value(entry.getValue())
-                    .valueLabel(valueLabel)
+                    .value(score.value())
+                    .valueLabel(profitLabel(score.value()))
                     .build());
         }
 
         return entries;
     }
+
+    private static LeaderboardEntry wealthEntry(int rank, String userId, String name, BigDecimal balance) {
+        return LeaderboardEntry.builder()
+                .rank(rank)
+                .userId(userId)
+                .name(name)
+                .value(balance)
+                .valueLabel("R$ " + balance.setScale(2).toString())
+                .build();
+    }
+
+    private static String profitLabel(BigDecimal value) {
+        String prefix = value.compareTo(BigDecimal.ZERO) >= 0 ? "+ R$ " : "- R$ ";
+        return prefix + value.abs().setScale(2).toString();
+    }
 }
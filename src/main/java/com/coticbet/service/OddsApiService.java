@@ -9,8 +9,13 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.bson.types.Decimal128;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -37,6 +42,8 @@ public class OddsApiService {
     private final EventRepository eventRepository;
     private final WebSocketService webSocketService;
     private final EventService eventService;
+    private final OddsBook oddsBook;
+    private final MongoTemplate mongoTemplate;
 
     @Value("${app.odds-api.key:74b0d97c2323c279b2e4306b3f7fd045}")
     private String apiKey;
@@ -111,9 +118,12 @@ public class OddsApiService {
             }
 
             // Update odds
-            updateEventOdds(event, apiEvent);
-            event.setUpdatedAt(LocalDateTime.now());
-            eventRepository.save(event);
+            if (!updateEventOdds(event, apiEvent)) {
+                log.debug("Event changed status during odds sync: {}", event.getTitle());
+                return;
+            }
+            event = eventRepository.findById(event.getId()).orElse(event);
+            oddsBook.refresh(event);
 
             // Broadcast update
             webSocketService.broadcastEventUpdate(eventService.toResponse(event));
@@ -123,6 +133,7 @@ public class OddsApiService {
             // Create new event
             Event newEvent = createEventFromApi(apiEvent);
             eventRepository.save(newEvent);
+            oddsBook.refresh(newEvent);
             log.info("Created new event: {}", newEvent.getTitle());
 
             // Notify all users about new event
@@ -150,15 +161,39 @@ public class OddsApiService {
                 .build();
     }
 
-    private void updateEventOdds(Event event, OddsApiEventResponse apiEvent) {
+    /**
+     * Set only the odds of matching options with targeted $set updates, so
+     * stakes that bets are incrementing concurrently are never overwritten.
+     * Each update is guarded on the event still being open for pricing.
+     *
+     * @return false when the event is no longer updatable
+     */
+    private boolean updateEventOdds(Event event, OddsApiEventResponse apiEvent) {
         List<EventOption> newOptions = extractOptionsFromApi(apiEvent);
+        LocalDateTime now = LocalDateTime.now();
+        boolean updatable = true;
 
         for (EventOption newOpt : newOptions) {
-            event.getOptions().stream()
+            Optional<EventOption> existing = event.getOptions().stream()
                     .filter(opt -> opt.getName().equals(newOpt.getName()))
-                    .findFirst()
-                    .ifPresent(opt -> opt.setCurrentOdd(newOpt.getCurrentOdd()));
+                    .findFirst();
+            if (existing.isEmpty()) {
+                continue;
+            }
+
+            Query query = Query.query(Criteria.where("_id").is(event.getId())
+                    .and("status").in(EventStatus.PENDING, EventStatus.OPEN)
+                    .and("options.id").is(existing.get().getId()));
+            Update update = new Update()
+                    .set("options.$.currentOdd", new Decimal128(newOpt.getCurrentOdd()))
+                    .set("updatedAt", now);
+
+            if (mongoTemplate.updateFirst(query, update, Event.class).getMatchedCount() == 0) {
+                updatable = false;
+            }
         }
+
+        return updatable;
     }
 
     private List<EventOption> extractOptionsFromApi(OddsApiEventResponse apiEvent) {
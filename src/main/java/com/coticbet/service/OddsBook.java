@@ -0,0 +1,112 @@
+package com.coticbet.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.coticbet.domain.entity.Event;
+import com.coticbet.domain.entity.EventOption;
+import com.coticbet.domain.enums.EventStatus;
+import com.coticbet.domain.enums.PricingModel;
+import com.coticbet.domain.value.FixedPoint;
+import com.coticbet.repository.EventRepository;
+import com.coticbet.service.ParimutuelOddsEngine.Quote;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-mostly, in-memory book of the events currently OPEN for betting, with
+ * options keyed by optionId. Used by bet placement to validate selections and
+ * lock odds without a database round trip.
+ *
+ * Entries are immutable snapshots replaced on every change, so readers never
+ * need a lock.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OddsBook {
+
+    private final EventRepository eventRepository;
+
+    private final Map<String, BookedEvent> openEvents = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Event> events = eventRepository.findByStatus(EventStatus.OPEN);
+        events.forEach(this::refresh);
+        log.info("Odds book loaded with {} open events", openEvents.size());
+    }
+
+    public Optional<BookedEvent> find(String eventId) {
+        return Optional.ofNullable(openEvents.get(eventId));
+    }
+
+    /**
+     * Sync the book with the given event state: OPEN events are (re)booked, any
+     * other status removes the event.
+     *
+     * @return the booked snapshot, or null if the event is not open
+     */
+    public BookedEvent refresh(Event event) {
+        if (event.getStatus() != EventStatus.OPEN) {
+            openEvents.remove(event.getId());
+            return null;
+        }
+
+        BookedEvent booked = BookedEvent.from(event);
+        openEvents.put(event.getId(), booked);
+        return booked;
+    }
+
+    /**
+     * Replace the odds of a booked event. No-op if the event is no longer in
+     * the book.
+     */
+    public void updateOdds(String eventId, Quote odds) {
+        openEvents.computeIfPresent(eventId, (id, booked) -> booked.withOdds(odds));
+    }
+
+    public record BookedEvent(
+            String id,
+            String title,
+            PricingModel pricingModel,
+            Map<String, BookedOption> options) {
+
+        static BookedEvent from(Event event) {
+            Map<String, BookedOption> options = new LinkedHashMap<>();
+            for (EventOption option : event.getOptions()) {
+                options.put(option.getId(),
+                        new BookedOption(option.getId(), option.getName(), FixedPoint.of(option.getCurrentOdd())));
+            }
+            return new BookedEvent(event.getId(), event.getTitle(), event.getPricingModel(), Map.copyOf(options));
+        }
+
+        public Optional<BookedOption> option(String optionId) {
+            return Optional.ofNullable(options.get(optionId));
+        }
+
+        BookedEvent withOdds(Quote odds) {
+            Map<String, BookedOption> repriced = new LinkedHashMap<>(options);
+            for (int i = 0; i < odds.size(); i++) {
+                long odd = odds.odd(i);
+                repriced.computeIfPresent(odds.optionId(i),
+                        (key, option) -> new BookedOption(option.id(), option.name(), odd));
+            }
+            return new BookedEvent(id, title, pricingModel, Map.copyOf(repriced));
+        }
+    }
+
+    /**
+     * @param currentOdd odd in hundredths (see {@link FixedPoint})
+     */
+    public record BookedOption(String id, String name, long currentOdd) {
+    }
+}
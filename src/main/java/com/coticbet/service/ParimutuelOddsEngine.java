@@ -0,0 +1,278 @@
+package com.coticbet.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.coticbet.domain.entity.Event;
+import com.coticbet.domain.entity.EventOption;
+import com.coticbet.domain.value.FixedPoint;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory pricing engine for DYNAMIC_PARIMUTUEL events.
+ *
+ * Each event has its own pool, and every update to a pool happens while
+ * holding that pool's monitor, so updates are serialized per event while bets
+ * on different events never contend. Pools use {@link FixedPoint} longs, and
+ * recalculated odds are kept in memory and written to Mongo in batches by
+ * {@link #flush()}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParimutuelOddsEngine {
+
+    private static final Duration CLOSED_EVENT_RETENTION = Duration.ofMinutes(10);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+    private final Set<String> dirtyEvents = ConcurrentHashMap.newKeySet();
+    // Events whose pool was evicted; never re-pooled, since nothing would evict them again.
+    // A stake can only race with the eviction for as long as its own request runs, so the
+    // ids expire instead of piling up for the life of the process.
+    private final Set<String> closedEvents = Collections.newSetFromMap(Caffeine.newBuilder()
+            .expireAfterWrite(CLOSED_EVENT_RETENTION)
+            .<String, Boolean>build()
+            .asMap());
+
+    /**
+     * Record a stake on an option and return the new odds for every option of
+     * the event.
+     *
+     * @param event post-increment event document, as returned by the $inc on
+     *              options.$.totalStaked
+     */
+    public Quote applyStake(Event event, String optionId) {
+        Pool pool = pools.compute(event.getId(),
+                (id, existing) -> existing != null || closedEvents.contains(id) ? existing : Pool.seed(event));
+        if (pool == null) {
+            return settleLateStake(event);
+        }
+
+        long reportedStake = event.getOptions().stream()
+                .filter(opt -> opt.getId().equals(optionId))
+                .findFirst()
+                .map(opt -> FixedPoint.of(opt.getTotalStaked()))
+                .orElse(0L);
+
+        synchronized (pool) {
+            if (pool.evicted) {
+                return settleLateStake(event);
+            }
+            pool.observeStake(optionId, reportedStake);
+            dirtyEvents.add(event.getId());
+            return pool.odds();
+        }
+    }
+
+    /**
+     * A stake that raced with {@link #evict(String)}: price it from the event
+     * document, which already includes it, and persist the odds directly
+     * instead of recreating a pool.
+     */
+    private Quote settleLateStake(Event event) {
+        Quote odds = Pool.seed(event).odds();
+        mongoTemplate.updateFirst(byId(event.getId()), oddsUpdate(odds), Event.class);
+        return odds;
+    }
+
+    /**
+     * Persist pending odds for an event and drop its pool. Called when the event
+     * stops accepting bets.
+     */
+    public void evict(String eventId) {
+        // Mark closed first, so a racing applyStake either finds the pool below
+        // (and is seen through its evicted flag) or refuses to recreate it
+        closedEvents.add(eventId);
+        Pool pool = pools.remove(eventId);
+        if (pool == null) {
+            return;
+        }
+
+        Quote odds;
+        synchronized (pool) {
+            pool.evicted = true;
+            odds = pool.odds();
+        }
+        if (dirtyEvents.remove(eventId)) {
+            mongoTemplate.updateFirst(byId(eventId), oddsUpdate(odds), Event.class);
+        }
+    }
+
+    /**
+     * Write the odds of every event that changed since the last flush in a
+     * single unordered bulk operation.
+     */
+    @Scheduled(fixedDelayString = "${app.pricing.flush-interval:500}")
+    public void flush() {
+        if (dirtyEvents.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Event.class);
+        int pending = 0;
+
+        for (Iterator<String> it = dirtyEvents.iterator(); it.hasNext();) {
+            String eventId = it.next();
+            it.remove();
+
+            Pool pool = pools.get(eventId);
+            if (pool == null) {
+                continue;
+            }
+
+            Quote odds;
+            synchronized (pool) {
+                odds = pool.odds();
+            }
+            bulk.updateOne(byId(eventId), oddsUpdate(odds));
+            pending++;
+        }
+
+        if (pending > 0) {
+            bulk.execute();
+            log.debug("Persisted parimutuel odds for {} events", pending);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Query byId(String eventId) {
+        return Query.query(Criteria.where("_id").is(eventId));
+    }
+
+    /**
+     * Set only options.$[].currentOdd (one array filter per option), leaving
+     * totalStaked to the atomic increments.
+     */
+    private Update oddsUpdate(Quote odds) {
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+
+        for (int i = 0; i < odds.size(); i++) {
+            String identifier = "opt" + i;
+            update.set("options.$[" + identifier + "].currentOdd",
+                    new Decimal128(FixedPoint.toBigDecimal(odds.odd(i))))
+                    .filterArray(Criteria.where(identifier + ".id").is(odds.optionId(i)));
+        }
+        return update;
+    }
+
+    /**
+     * Odds of every option of an event in hundredths (see {@link FixedPoint}),
+     * in the pool's option order. A single primitive array over the pool's
+     * immutable option index, so pricing a stake boxes nothing.
+     */
+    public static final class Quote {
+
+        private final String[] optionIds;
+        private final Map<String, Integer> indexByOption;
+        private final long[] odds;
+
+        private Quote(String[] optionIds, Map<String, Integer> indexByOption, long[] odds) {
+            this.optionIds = optionIds;
+            this.indexByOption = indexByOption;
+            this.odds = odds;
+        }
+
+        public int size() {
+            return odds.length;
+        }
+
+        public String optionId(int index) {
+            return optionIds[index];
+        }
+
+        public long odd(int index) {
+            return odds[index];
+        }
+
+        public boolean contains(String optionId) {
+            return indexByOption.containsKey(optionId);
+        }
+
+        public long oddOf(String optionId) {
+            return odds[indexByOption.get(optionId)];
+        }
+    }
+
+    /**
+     * Stake pool of a single event, in hundredths. Not thread-safe on its own;
+     * callers synchronize on the instance.
+     */
+    private static final class Pool {
+
+        private final String[] optionIds;
+        private final long[] stakes;
+        private final long[] seedOdds;
+        private final Map<String, Integer> indexByOption = new HashMap<>();
+        private long total;
+        private boolean evicted;
+
+        private Pool(int size) {
+            optionIds = new String[size];
+            stakes = new long[size];
+            seedOdds = new long[size];
+        }
+
+        static Pool seed(Event event) {
+            List<EventOption> options = event.getOptions();
+            Pool pool = new Pool(options.size());
+            for (int i = 0; i < options.size(); i++) {
+                EventOption option = options.get(i);
+                BigDecimal seedOdd = option.getSeedOdd() != null ? option.getSeedOdd() : option.getCurrentOdd();
+                pool.optionIds[i] = option.getId();
+                pool.stakes[i] = option.getTotalStaked() != null ? FixedPoint.of(option.getTotalStaked()) : 0;
+                pool.seedOdds[i] = FixedPoint.of(seedOdd);
+                pool.indexByOption.put(option.getId(), i);
+                pool.total += pool.stakes[i];
+            }
+            return pool;
+        }
+
+        /**
+         * Stakes only grow while an event is open, so the value reported by the
+         * database is applied with max(): late or out-of-order reports are no-ops.
+         */
+        void observeStake(String optionId, long reported) {
+            Integer index = indexByOption.get(optionId);
+            if (index != null && reported > stakes[index]) {
+                total += reported - stakes[index];
+                stakes[index] = reported;
+            }
+        }
+
+        Quote odds() {
+            long[] odds = new long[optionIds.length];
+            for (int i = 0; i < optionIds.length; i++) {
+                // Odd = TotalOnEvent / TotalOnOption, seed odd while the option has no stakes
+                odds[i] = stakes[i] > 0 ? FixedPoint.divide(total, stakes[i]) : seedOdds[i];
+            }
+            return new Quote(optionIds, indexByOption, odds);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.coticbet.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.bson.types.Decimal128;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.coticbet.domain.entity.Bet;
+import com.coticbet.domain.entity.ProfitStat;
+import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.BetStatus;
+import com.coticbet.domain.enums.ProfitPeriod;
+import com.coticbet.domain.enums.Role;
+import com.coticbet.service.ScoreBoard.Score;
+import com.coticbet.service.ScoreBoard.Window;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user weekly and monthly net profit, incremented as bets settle. The
+ * current week and month are mirrored in in-memory score boards, so profit
+ * and loss rankings never touch the bets collection.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProfitStatsService {
+
+    /**
+     * Last settlement chunk applied to the bucket, per process (see
+     * {@link ChunkMarker})
+     */
+    private static final String CHUNK_MARKERS = "appliedChunks";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<ProfitPeriod, PeriodBoard> boards = new EnumMap<>(ProfitPeriod.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (ProfitPeriod period : ProfitPeriod.values()) {
+            board(period);
+        }
+    }
+
+    /**
+     * Add the profit or loss of settled bets to their users' week and month
+     * buckets with one bulk upsert, then add the same deltas to the boards.
+     * Bets that are not WON or LOST and bets of admins are ignored.
+     *
+     * Each bucket update records the chunk marker and only matches while the
+     * chunk is not yet recorded, so re-running a chunk never counts it twice,
+     * neither in profit_stats nor on the boards. Call
+     * {@link #releaseChunkMarkers(ChunkMarker, List)} once the chunk can no
+     * longer be re-run.
+     */
+    public void recordSettledBets(ChunkMarker marker, List<Bet> bets) {
+        Map<String, BigDecimal> deltas = new LinkedHashMap<>();
+        Map<String, Bucket> buckets = new LinkedHashMap<>();
+        List<String> userIds = bets.stream().map(Bet::getUserId).distinct().toList();
+        Set<String> admins = adminIds(Criteria.where("_id").in(userIds).and("role").is(Role.ADMIN));
+
+        for (Bet bet : bets) {
+            BigDecimal profit = profitOf(bet);
+            if (profit == null || admins.contains(bet.getUserId())) {
+                continue;
+            }
+
+            for (Bucket bucket : bucketsOf(bet)) {
+                String id = bucket.id();
+                deltas.merge(id, profit, BigDecimal::add);
+                buckets.putIfAbsent(id, bucket);
+            }
+        }
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Taken before the write: a board reloaded after it already holds the deltas
+        Map<ProfitPeriod, PeriodBoard> current = new EnumMap<>(ProfitPeriod.class);
+        for (ProfitPeriod period : ProfitPeriod.values()) {
+            current.put(period, board(period));
+        }
+
+        List<String> ids = new ArrayList<>(deltas.keySet());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProfitStat.class);
+        LocalDateTime now = LocalDateTime.now();
+        for (String id : ids) {
+            bulk.upsert(guarded(marker, id), increment(marker, buckets.get(id), deltas.get(id), now));
+        }
+        Set<String> applied = new LinkedHashSet<>(ids);
+        for (int index : executeIgnoringDuplicates(bulk)) {
+            String id = ids.get(index);
+            // Either the chunk is already recorded or a concurrent upsert created the bucket first
+            boolean recorded = mongoTemplate.updateFirst(guarded(marker, id),
+                    increment(marker, buckets.get(id), deltas.get(id), now),
+                    ProfitStat.class).getModifiedCount() == 1;
+            if (!recorded) {
+                applied.remove(id);
+            }
+        }
+
+        for (String id : applied) {
+            Bucket bucket = buckets.get(id);
+            PeriodBoard board = current.get(bucket.period());
+            if (board.start().equals(bucket.periodStart())) {
+                board.scores().add(bucket.userId(), deltas.get(id));
+            }
+        }
+    }
+
+    private static Query guarded(ChunkMarker marker, String id) {
+        return Query.query(Criteria.where("_id").is(id)).addCriteria(marker.notApplied(CHUNK_MARKERS));
+    }
+
+    private static Update increment(ChunkMarker marker, Bucket bucket, BigDecimal delta, LocalDateTime now) {
+        return marker.apply(new Update(), CHUNK_MARKERS)
+                .inc("netProfit", new Decimal128(delta))
+                .set("updatedAt", now)
+                .setOnInsert("userId", bucket.userId())
+                .setOnInsert("period", bucket.period())
+                .setOnInsert("periodStart", bucket.periodStart());
+    }
+
+    /**
+     * Drop the marker {@link #recordSettledBets(ChunkMarker, List)} left on the
+     * buckets of these bets. Markers of later chunks are left alone.
+     */
+    public void releaseChunkMarkers(ChunkMarker marker, List<Bet> bets) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (Bet bet : bets) {
+            if (profitOf(bet) != null) {
+                bucketsOf(bet).forEach(bucket -> ids.add(bucket.id()));
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(ids)).addCriteria(marker.applied(CHUNK_MARKERS)),
+                new Update().unset(marker.path(CHUNK_MARKERS)),
+                ProfitStat.class);
+    }
+
+    /**
+     * Same as {@link #releaseChunkMarkers(ChunkMarker, List)} for buckets that
+     * are no longer known, e.g. after a crash. Scans profit_stats.
+     */
+    public void releaseChunkMarkers(ChunkMarker marker) {
+        mongoTemplate.updateMulti(
+                Query.query(marker.applied(CHUNK_MARKERS)),
+                new Update().unset(marker.path(CHUNK_MARKERS)),
+                ProfitStat.class);
+    }
+
+    /**
+     * Run an upsert bulk whose guarded updates may find their chunk already
+     * applied. Such an update matches nothing, so the upsert tries to insert
+     * the existing _id again; those duplicate key errors are expected.
+     *
+     * @return indexes of the updates that failed with a duplicate key
+     */
+    private static List<Integer> executeIgnoringDuplicates(BulkOperations bulk) {
+        try {
+            bulk.execute();
+            return List.of();
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+            return e.getErrors().stream().map(error -> error.getIndex()).toList();
+        }
+    }
+
+    /**
+     * Payout minus stake of a settled bet, or null for bets that are not WON or
+     * LOST
+     */
+    private static BigDecimal profitOf(Bet bet) {
+        if (bet.getSettledAt() == null
+                || (bet.getStatus() != BetStatus.WON && bet.getStatus() != BetStatus.LOST)) {
+            return null;
+        }
+        return bet.getStatus() == BetStatus.WON
+                ? bet.getPotentialPayout().subtract(bet.getAmount())
+                : bet.getAmount().negate();
+    }
+
+    private static List<Bucket> bucketsOf(Bet bet) {
+        LocalDate day = bet.getSettledAt().toLocalDate();
+        List<Bucket> buckets = new ArrayList<>(ProfitPeriod.values().length);
+        for (ProfitPeriod period : ProfitPeriod.values()) {
+            buckets.add(new Bucket(bet.getUserId(), period, period.startOf(day)));
+        }
+        return buckets;
+    }
+
+    /**
+     * Highest positive net profits of the current period, highest first
+     */
+    public List<Score> topProfits(ProfitPeriod period, int limit) {
+        return board(period).scores().top(limit, profit -> profit.signum() > 0);
+    }
+
+    /**
+     * Biggest net losses of the current period, biggest first
+     */
+    public List<Score> topLosses(ProfitPeriod period, int limit) {
+        return board(period).scores().bottom(limit, profit -> profit.signum() < 0);
+    }
+
+    /**
+     * A user's rank on the current period's board with up to neighbours users
+     * on each side. Like {@link #topProfits} and {@link #topLosses}, profits
+     * rank positive totals highest first and losses negative totals lowest
+     * first; null when the user's total is not on that board.
+     */
+    public Window around(ProfitPeriod period, String userId, int neighbours, boolean losses) {
+        Predicate<BigDecimal> ranked = losses ? profit -> profit.signum() < 0 : profit -> profit.signum() > 0;
+        return board(period).scores().around(userId, neighbours, !losses, ranked);
+    }
+
+    /**
+     * Board of the current period, reloaded from profit_stats when the period
+     * rolls over
+     */
+    private synchronized PeriodBoard board(ProfitPeriod period) {
+        LocalDate start = period.startOf(LocalDate.now());
+        PeriodBoard board = boards.get(period);
+        if (board != null && board.start().equals(start)) {
+            return board;
+        }
+
+        ScoreBoard scores = new ScoreBoard();
+        Set<String> admins = adminIds(Criteria.where("role").is(Role.ADMIN));
+        Query query = Query.query(Criteria.where("period").is(period).and("periodStart").is(start));
+        query.fields().include("userId").include("netProfit");
+        for (ProfitStat stat : mongoTemplate.find(query, ProfitStat.class)) {
+            if (!admins.contains(stat.getUserId())) {
+                scores.put(stat.getUserId(), stat.getNetProfit());
+            }
+        }
+
+        board = new PeriodBoard(start, scores);
+        boards.put(period, board);
+        log.info("Loaded {} board starting {}", period, start);
+        return board;
+    }
+
+    /**
+     * Ids of the admin users matching criteria: admins never rank, so their bets
+     * are kept off profit_stats and the boards
+     */
+    private Set<String> adminIds(Criteria criteria) {
+        Query query = Query.query(criteria);
+        query.fields().include("_id");
+        Set<String> ids = new HashSet<>();
+        mongoTemplate.find(query, User.class).forEach(user -> ids.add(user.getId()));
+        return ids;
+    }
+
+    private record Bucket(String userId, ProfitPeriod period, LocalDate periodStart) {
+
+        String id() {
+            return ProfitStat.idOf(userId, period, periodStart);
+        }
+    }
+
+    private record PeriodBoard(LocalDate start, ScoreBoard scores) {
+    }
+}
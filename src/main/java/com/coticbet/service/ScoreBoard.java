@@ -0,0 +1,291 @@
+package com.coticbet.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * In-memory ranking of users by score, kept sorted as scores change so the
+ * top or bottom entries can be read without sorting. Backed by a treap whose
+ * nodes track their subtree size, so a user's rank and the entries at any
+ * position are found in O(log n). Thread-safe.
+ */
+public class ScoreBoard {
+
+    private static final Comparator<Score> ORDER = Comparator
+            .comparing(Score::value)
+            .thenComparing(Score::userId);
+
+    private final Map<String, Score> scoresByUser = new HashMap<>();
+    private Node root;
+
+    public synchronized void put(String userId, BigDecimal value) {
+        Score previous = scoresByUser.put(userId, new Score(userId, value));
+        if (previous != null) {
+            root = delete(root, previous);
+        }
+        root = insert(root, new Node(scoresByUser.get(userId)));
+    }
+
+    /**
+     * Add delta to the user's score, starting from zero for a new user
+     */
+    public synchronized void add(String userId, BigDecimal delta) {
+        Score previous = scoresByUser.get(userId);
+        put(userId, previous == null ? delta : previous.value().add(delta));
+    }
+
+    public synchronized void remove(String userId) {
+        Score previous = scoresByUser.remove(userId);
+        if (previous != null) {
+            root = delete(root, previous);
+        }
+    }
+
+    public synchronized void clear() {
+        scoresByUser.clear();
+        root = null;
+    }
+
+    public synchronized int size() {
+        return size(root);
+    }
+
+    /**
+     * Up to limit highest scores, highest first, stopping at the first score
+     * that fails the filter. The filter must therefore be a threshold on the
+     * score, such as "positive".
+     */
+    public synchronized List<Score> top(int limit, Predicate<BigDecimal> filter) {
+        int size = size(root);
+        return takeWhile(slice(Math.max(0, size - limit), size, true), filter);
+    }
+
+    /**
+     * Up to limit lowest scores, lowest first, stopping at the first score
+     * that fails the threshold filter
+     */
+    public synchronized List<Score> bottom(int limit, Predicate<BigDecimal> filter) {
+        return takeWhile(slice(0, Math.min(limit, size(root)), false), filter);
+    }
+
+    /**
+     * A user's 1-based rank plus up to neighbours scores on each side, ranked
+     * highest first when descending and lowest first otherwise. Like top and
+     * bottom, only scores passing the threshold filter are ranked, and the
+     * total counts those alone.
+     *
+     * @return the window, or null when the user has no score or it fails the
+     *         filter
+     */
+    public synchronized Window around(String userId, int neighbours, boolean descending,
+            Predicate<BigDecimal> filter) {
+        Score score = scoresByUser.get(userId);
+        if (score == null || !filter.test(score.value())) {
+            return null;
+        }
+
+        // Ascending positions [first, last) hold the ranked scores: the filter
+        // is a threshold, so they are either the highest or the lowest ones
+        boolean lowestRanked = filter.test(lowest().value());
+        int first = lowestRanked ? 0 : countLeading(filter, false);
+        int last = lowestRanked ? countLeading(filter, true) : size(root);
+        int total = last - first;
+
+        int lower = countLower(score);
+        int position = descending ? last - 1 - lower : lower - first;
+        int from = Math.max(0, position - neighbours);
+        int to = Math.min(total, position + neighbours + 1);
+
+        List<Score> scores = descending
+                ? slice(last - to, last - from, true)
+                : slice(first + from, first + to, false);
+        return new Window(position + 1, from + 1, total, scores);
+    }
+
+    /**
+     * Scores at ascending positions [from, to), optionally in reverse order
+     */
+    private List<Score> slice(int from, int to, boolean reversed) {
+        List<Score> result = new ArrayList<>(Math.max(0, to - from));
+        collect(root, from, to, 0, result);
+        if (reversed) {
+            Collections.reverse(result);
+        }
+        return result;
+    }
+
+    private static void collect(Node node, int from, int to, int offset, List<Score> result) {
+        if (node == null || from >= offset + node.size || to <= offset) {
+            return;
+        }
+        int index = offset + size(node.left);
+        collect(node.left, from, to, offset, result);
+        if (index >= from && index < to) {
+            result.add(node.score);
+        }
+        collect(node.right, from, to, index + 1, result);
+    }
+
+    private static List<Score> takeWhile(List<Score> scores, Predicate<BigDecimal> filter) {
+        List<Score> result = new ArrayList<>(scores.size());
+        for (Score score : scores) {
+            if (!filter.test(score.value())) {
+                break;
+            }
+            result.add(score);
+        }
+        return result;
+    }
+
+    private Score lowest() {
+        Node node = root;
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.score;
+    }
+
+    /**
+     * Length of the run of lowest scores whose filter result equals the given
+     * one, which must be the lowest score's. The filter is a threshold, so its
+     * result flips at most once along the ascending order.
+     */
+    private int countLeading(Predicate<BigDecimal> filter, boolean result) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (filter.test(node.score.value()) == result) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Number of scores ordered before the given one
+     */
+    private int countLower(Score score) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (ORDER.compare(node.score, score) < 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (ORDER.compare(added.score, node.score) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                return rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                return rotateLeft(node);
+            }
+        }
+        node.resize();
+        return node;
+    }
+
+    private static Node delete(Node node, Score score) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = ORDER.compare(score, node.score);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, score);
+        } else {
+            node.right = delete(node.right, score);
+        }
+        node.resize();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.resize();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.resize();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        node.resize();
+        left.right = node;
+        left.resize();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        node.resize();
+        right.left = node;
+        right.resize();
+        return right;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static final class Node {
+
+        private final Score score;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(Score score) {
+            this.score = score;
+        }
+
+        private void resize() {
+            size = size(left) + size(right) + 1;
+        }
+    }
+
+    public record Score(String userId, BigDecimal value) {
+    }
+
+    /**
+     * Scores around a user, with the rank of the first one and the board size
+     */
+    public record Window(int rank, int firstRank, int total, List<Score> scores) {
+    }
+}
@@ -1,23 +1,44 @@
 package com.coticbet.service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.coticbet.domain.entity.Bet;
 import com.coticbet.domain.entity.BetLeg;
 import com.coticbet.domain.entity.Event;
+import com.coticbet.domain.entity.SettlementJob;
 import com.coticbet.domain.enums.BetStatus;
 import com.coticbet.domain.enums.EventStatus;
 import com.coticbet.domain.enums.LegStatus;
+import com.coticbet.domain.enums.SettlementJobStatus;
+import com.coticbet.domain.enums.SettlementJobType;
 import com.coticbet.domain.enums.TransactionOrigin;
-import com.coticbet.event.BetSettledEvent;
+import com.coticbet.domain.value.FixedPoint;
+import com.coticbet.dto.response.SettlementJobResponse;
+import com.coticbet.event.BetsSettledEvent;
+import com.coticbet.event.BetsSettledEvent.SettledBet;
 import com.coticbet.exception.BusinessException;
+import com.coticbet.exception.ResourceNotFoundException;
+import com.coticbet.repository.SettlementJobRepository;
+import com.coticbet.service.WalletService.WalletCredit;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,11 +51,33 @@ public class SettlementService {
     private final EventService eventService;
     private final BetService betService;
     private final WalletService walletService;
+    private final BadgeProgressService badgeProgressService;
+    private final ProfitStatsService profitStatsService;
+    private final LeaderboardService leaderboardService;
     private final WebSocketService webSocketService;
     private final ApplicationEventPublisher eventPublisher;
+    private final SettlementJobRepository settlementJobRepository;
+
+    private final ExecutorService settlementExecutor;
+    private final ExecutorService settlementJobExecutor;
+
+    /**
+     * Jobs currently running in this instance
+     */
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
 
-    @Transactional
-    public void settleEvent(String eventId, String winnerOptionId) {
+    @Value("${app.settlement.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.settlement.parallelism:16}")
+    private int parallelism;
+
+    /**
+     * Start a background job that marks the event as settled and settles its
+     * pending bets. The job is saved before the event changes, so an
+     * interrupted settlement can always be resumed.
+     */
+    public SettlementJobResponse settleEvent(String eventId, String winnerOptionId) {
         Event event = eventService.findEventById(eventId);
 
         // Validate event status
@@ -49,105 +92,336 @@ public class SettlementService {
             throw new BusinessException("Invalid winner option ID");
         }
 
-        // Update event
-        event.setWinnerOptionId(winnerOptionId);
-        event.setStatus(EventStatus.SETTLED);
-        event.setUpdatedAt(LocalDateTime.now());
-        eventService.saveEvent(event);
+        assertNoSettlementJob(eventId);
+        return toResponse(startJob(eventId, SettlementJobType.SETTLE, winnerOptionId));
+    }
 
-        // Process legacy single bets (using old eventId field)
-        processLegacyBets(eventId, winnerOptionId, event);
+    /**
+     * Start a background job that cancels the event and voids all related bets
+     */
+    public SettlementJobResponse cancelEvent(String eventId) {
+        Event event = eventService.findEventById(eventId);
 
-        // Process multi-leg bets (using legs array)
-        processMultiLegBets(eventId, winnerOptionId, event);
+        if (event.getStatus() == EventStatus.SETTLED || event.getStatus() == EventStatus.CANCELED) {
+            throw new BusinessException("Cannot cancel an event that is already " + event.getStatus());
+        }
 
-        // Broadcast event update
-        webSocketService.broadcastEventUpdate(eventService.toResponse(event));
+        assertNoSettlementJob(eventId);
+        return toResponse(startJob(eventId, SettlementJobType.CANCEL, null));
     }
 
     /**
-     * Process legacy bets that use the old eventId field (backward compatibility)
+     * Only one job may run per event. A failed job that never claimed the event
+     * does not block a new one; the claim in {@link #finalizeEvent} settles any
+     * remaining race.
      */
-    @SuppressWarnings("deprecation")
-    private void processLegacyBets(String eventId, String winnerOptionId, Event event) {
-        List<Bet> legacyBets = betService.getPendingBetsForEvent(eventId);
+    private void assertNoSettlementJob(String eventId) {
+        settlementJobRepository.findFirstByEventIdOrderByCreatedAtDesc(eventId)
+                .filter(job -> job.getStatus() == SettlementJobStatus.RUNNING)
+                .ifPresent(job -> {
+                    throw new BusinessException("Event already has a running settlement job: " + job.getId());
+                });
+    }
 
-        for (Bet bet : legacyBets) {
-            // Skip if this bet has legs (it's a new format bet)
-            if (bet.getLegs() != null && !bet.getLegs().isEmpty()) {
-                continue;
+    /**
+     * Latest settlement job of the given event
+     */
+    public SettlementJobResponse getLatestJob(String eventId) {
+        return settlementJobRepository.findFirstByEventIdOrderByCreatedAtDesc(eventId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("No settlement job found for event: " + eventId));
+    }
+
+    /**
+     * Restart the latest settlement job of the given event from its checkpoint.
+     * An event left SETTLED or CANCELED without any job gets a new one.
+     */
+    public SettlementJobResponse resumeJob(String eventId) {
+        Optional<SettlementJob> latest = settlementJobRepository.findFirstByEventIdOrderByCreatedAtDesc(eventId);
+        if (latest.isEmpty()) {
+            return toResponse(startOrphanedJob(eventId));
+        }
+
+        SettlementJob job = latest.get();
+
+        if (job.getStatus() == SettlementJobStatus.COMPLETED) {
+            throw new BusinessException("Settlement job already completed");
+        }
+        if (activeJobs.contains(job.getId())) {
+            throw new BusinessException("Settlement job is already running");
+        }
+
+        job.setStatus(SettlementJobStatus.RUNNING);
+        job.setError(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        submit(settlementJobRepository.save(job));
+        return toResponse(job);
+    }
+
+    /**
+     * Pick up jobs that were still running when the previous instance stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (SettlementJob job : settlementJobRepository.findByStatus(SettlementJobStatus.RUNNING)) {
+            log.warn("Resuming interrupted settlement job {} for event {} after bet {}",
+                    job.getId(), job.getEventId(), job.getLastBetId());
+            submit(job);
+        }
+    }
+
+    private SettlementJob startOrphanedJob(String eventId) {
+        Event event = eventService.findEventById(eventId);
+        if (event.getSettlementJobId() == null && event.getStatus() == EventStatus.SETTLED) {
+            // A null winner would mark every pending bet LOST
+            if (event.getWinnerOptionId() == null) {
+                throw new BusinessException("Event " + eventId + " is SETTLED without a winner option; cannot settle its bets");
             }
+            log.warn("Starting settlement job for event {} left SETTLED without one", eventId);
+            return startJob(eventId, SettlementJobType.SETTLE, event.getWinnerOptionId());
+        }
+        if (event.getSettlementJobId() == null && event.getStatus() == EventStatus.CANCELED) {
+            log.warn("Starting cancellation job for event {} left CANCELED without one", eventId);
+            return startJob(eventId, SettlementJobType.CANCEL, null);
+        }
+        throw new ResourceNotFoundException("No settlement job found for event: " + eventId);
+    }
 
-            bet.setSettledAt(LocalDateTime.now());
-
-            if (bet.getChosenOptionId().equals(winnerOptionId)) {
-                // Winner!
-                bet.setStatus(BetStatus.WON);
-                walletService.credit(
-                        bet.getUserId(),
-                        bet.getPotentialPayout(),
-                        TransactionOrigin.BET_WIN,
-                        bet.getId());
-
-                // Notify user
-                webSocketService.notifyUser(
-                        bet.getUserId(),
-                        "BET_WON",
-                        String.format("Parabéns! Você ganhou R$ %.2f no evento '%s'!",
-                                bet.getPotentialPayout(), event.getTitle()));
-            } else {
-                // Loser
-                bet.setStatus(BetStatus.LOST);
-
-                // Notify loser too
-                webSocketService.notifyUser(
-                        bet.getUserId(),
-                        "BET_LOST",
-                        String.format("Que pena! Você perdeu sua aposta no evento '%s'.", event.getTitle()));
+    private SettlementJob startJob(String eventId, SettlementJobType type, String winnerOptionId) {
+        LocalDateTime now = LocalDateTime.now();
+        SettlementJob job = settlementJobRepository.save(SettlementJob.builder()
+                .eventId(eventId)
+                .type(type)
+                .winnerOptionId(winnerOptionId)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+
+        submit(job);
+        return job;
+    }
+
+    private void submit(SettlementJob job) {
+        if (!activeJobs.add(job.getId())) {
+            return;
+        }
+        settlementJobExecutor.execute(() -> {
+            try {
+                runJob(job);
+            } finally {
+                activeJobs.remove(job.getId());
             }
-            betService.saveBet(bet);
+        });
+    }
+
+    /**
+     * Stream the event's pending bets from the job checkpoint, flushing and
+     * checkpointing chunk by chunk
+     */
+    private void runJob(SettlementJob job) {
+        long startedAt = System.currentTimeMillis();
+        long processedBefore = job.getProcessedCount();
+
+        try {
+            Event event = finalizeEvent(job);
+            recoverLastChunk(job, event);
+            SettlementBatch batch = new SettlementBatch(job);
+
+            try (Stream<Bet> bets = betService.streamPendingBetsOnEvent(
+                    job.getEventId(), job.getLastBetId(), chunkSize)) {
+                for (Bet bet : (Iterable<Bet>) bets::iterator) {
+                    batch.lastBetId = bet.getId();
+                    settleBet(bet, event, batch);
+                    flushIfFull(batch);
+                }
+            }
+            flush(batch);
+
+            job.setStatus(SettlementJobStatus.COMPLETED);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setUpdatedAt(job.getCompletedAt());
+            settlementJobRepository.save(job);
+
+            // Broadcast event update
+            webSocketService.broadcastEventUpdate(eventService.toResponse(event));
+
+            log.info("Settlement job {} for event {} completed: {} bets in {} ms",
+                    job.getId(), job.getEventId(), job.getProcessedCount() - processedBefore,
+                    System.currentTimeMillis() - startedAt);
+        } catch (RuntimeException e) {
+            log.error("Settlement job {} for event {} failed after bet {}",
+                    job.getId(), job.getEventId(), job.getLastBetId(), e);
+            job.setStatus(SettlementJobStatus.FAILED);
+            job.setError(e.getMessage());
+            job.setUpdatedAt(LocalDateTime.now());
+            settlementJobRepository.save(job);
+        }
+    }
 
-            // Publish event for badge checking (async)
-            eventPublisher.publishEvent(new BetSettledEvent(this, bet, event.getTitle()));
+    /**
+     * First step of every run: move the event to its final status on behalf of
+     * this job. Idempotent for resumed runs; fails the job if another job owns
+     * the event.
+     */
+    private Event finalizeEvent(SettlementJob job) {
+        Event event = job.getType() == SettlementJobType.CANCEL
+                ? eventService.finalizeForSettlement(job.getEventId(), job.getId(), EventStatus.CANCELED, null,
+                        List.of(EventStatus.PENDING, EventStatus.OPEN, EventStatus.LOCKED))
+                : eventService.finalizeForSettlement(job.getEventId(), job.getId(), EventStatus.SETTLED,
+                        job.getWinnerOptionId(), List.of(EventStatus.LOCKED));
+
+        if (event == null) {
+            throw new BusinessException("Event " + job.getEventId() + " is owned by another settlement job");
         }
+        return event;
     }
 
     /**
-     * Process multi-leg bets that have this event as one of their legs
+     * Finish what an interrupted run left behind. A chunk that was recorded but
+     * not checkpointed is re-run as one chunk under the same marker: its bets
+     * that are still pending and the ones already settled by this job are
+     * evaluated again, and writes the crashed run already made match nothing.
+     * The markers of a chunk that was checkpointed but never released are
+     * dropped.
      */
-    private void processMultiLegBets(String eventId, String winnerOptionId, Event event) {
-        List<Bet> multiLegBets = betService.findPendingBetsWithEventLeg(eventId);
+    private void recoverLastChunk(SettlementJob job, Event event) {
+        String chunkEnd = job.getChunkEndBetId();
+        if (chunkEnd == null) {
+            return;
+        }
+        if (chunkEnd.equals(job.getLastBetId())) {
+            ChunkMarker marker = new ChunkMarker(job.getId(), chunkEnd);
+            walletService.releaseCreditMarkers(marker);
+            badgeProgressService.releaseChunkMarkers(marker);
+            profitStatsService.releaseChunkMarkers(marker);
+            return;
+        }
+
+        log.warn("Re-running interrupted chunk of settlement job {} after bet {} up to bet {}",
+                job.getId(), job.getLastBetId(), chunkEnd);
 
-        for (Bet bet : multiLegBets) {
-            if (bet.getLegs() == null || bet.getLegs().isEmpty()) {
-                continue; // Skip legacy bets (already processed)
+        SettlementBatch batch = new SettlementBatch(job);
+        try (Stream<Bet> bets = betService.streamSettlementChunk(
+                job.getEventId(), job.getId(), job.getLastBetId(), chunkEnd, chunkSize)) {
+            for (Bet bet : (Iterable<Bet>) bets::iterator) {
+                settleBet(bet, event, batch);
             }
+        }
 
-            // Find and update the specific leg for this event
-            boolean legFound = false;
-            for (BetLeg leg : bet.getLegs()) {
-                if (leg.getEventId().equals(eventId)) {
-                    legFound = true;
-
-                    if (leg.getChosenOptionId().equals(winnerOptionId)) {
-                        leg.setStatus(LegStatus.WON);
-                        log.info("Leg WON for bet {} on event {}", bet.getId(), eventId);
-                    } else {
-                        leg.setStatus(LegStatus.LOST);
-                        log.info("Leg LOST for bet {} on event {}", bet.getId(), eventId);
-                    }
-                    break;
+        batch.lastBetId = chunkEnd;
+        if (batch.bets.isEmpty()) {
+            checkpoint(job, chunkEnd, 0);
+        } else {
+            flush(batch);
+        }
+    }
+
+    private void settleBet(Bet bet, Event event, SettlementBatch batch) {
+        SettlementJob job = batch.job;
+        if (job.getType() == SettlementJobType.CANCEL) {
+            voidBet(bet, event, batch);
+        } else if (bet.getLegs() == null || bet.getLegs().isEmpty()) {
+            settleLegacyBet(bet, job.getWinnerOptionId(), event, batch);
+        } else {
+            settleMultiLegBet(bet, job.getWinnerOptionId(), event, batch);
+        }
+    }
+
+    /**
+     * Settle a legacy bet that uses the old eventId field (backward compatibility)
+     */
+    @SuppressWarnings("deprecation")
+    private void settleLegacyBet(Bet bet, String winnerOptionId, Event event, SettlementBatch batch) {
+        if (bet.getChosenOptionId().equals(winnerOptionId)) {
+            // Winner!
+            batch.settle(bet, BetStatus.WON);
+            batch.credit(bet.getUserId(), bet.getPotentialPayout(), TransactionOrigin.BET_WIN, bet.getId());
+
+            // Notify user
+            batch.notify(
+                    bet.getUserId(),
+                    "BET_WON",
+                    String.format("Parabéns! Você ganhou R$ %.2f no evento '%s'!",
+                            bet.getPotentialPayout(), event.getTitle()));
+        } else {
+            // Loser
+            batch.settle(bet, BetStatus.LOST);
+
+            // Notify loser too
+            batch.notify(
+                    bet.getUserId(),
+                    "BET_LOST",
+                    String.format("Que pena! Você perdeu sua aposta no evento '%s'.", event.getTitle()));
+        }
+        batch.update(bet);
+
+        // Publish event for badge checking (async)
+        batch.publish(bet, event.getTitle());
+    }
+
+    /**
+     * Settle the leg on this event of a multi-leg bet
+     */
+    private void settleMultiLegBet(Bet bet, String winnerOptionId, Event event, SettlementBatch batch) {
+        // Find and update the specific leg for this event
+        boolean legFound = false;
+        for (BetLeg leg : bet.getLegs()) {
+            if (leg.getEventId().equals(event.getId())) {
+                legFound = true;
+
+                if (leg.getChosenOptionId().equals(winnerOptionId)) {
+                    leg.setStatus(LegStatus.WON);
+                    log.debug("Leg WON for bet {} on event {}", bet.getId(), event.getId());
+                } else {
+                    leg.setStatus(LegStatus.LOST);
+                    log.debug("Leg LOST for bet {} on event {}", bet.getId(), event.getId());
                 }
+                break;
             }
+        }
 
-            if (!legFound) {
-                log.warn("Leg not found for event {} in bet {}", eventId, bet.getId());
-                continue;
+        if (!legFound) {
+            log.warn("Leg not found for event {} in bet {}", event.getId(), bet.getId());
+            return;
+        }
+
+        // Re-evaluate the overall bet status
+        evaluateMultiLegBetStatus(bet, event, batch);
+    }
+
+    /**
+     * Void a bet on a canceled event: multi-leg bets lose the leg, legacy
+     * single bets are refunded
+     */
+    private void voidBet(Bet bet, Event event, SettlementBatch batch) {
+        if (bet.getLegs() != null && !bet.getLegs().isEmpty()) {
+            for (BetLeg leg : bet.getLegs()) {
+                if (leg.getEventId().equals(event.getId())) {
+                    leg.setStatus(LegStatus.VOID);
+                    log.debug("Leg VOIDED for bet {} on canceled event {}", bet.getId(), event.getId());
+                }
             }
 
-            // Re-evaluate the overall bet status
-            evaluateMultiLegBetStatus(bet, event);
+            // Re-evaluate the bet
+            evaluateMultiLegBetStatus(bet, event, batch);
+            return;
         }
+
+        // Refund the bet amount
+        batch.credit(
+                bet.getUserId(),
+                bet.getAmount(),
+                TransactionOrigin.BET_WIN, // Using BET_WIN for refund
+                bet.getId());
+
+        batch.settle(bet, BetStatus.WON); // Treat as won (refund)
+        batch.update(bet);
+
+        batch.notify(
+                bet.getUserId(),
+                "EVENT_CANCELED",
+                String.format("O evento '%s' foi cancelado. Seu valor de R$ %.2f foi devolvido.",
+                        event.getTitle(), bet.getAmount()));
     }
 
     /**
@@ -156,123 +430,234 @@ public class SettlementService {
      * - If ALL legs are WON/VOID → bet is WON (pay user)
      * - If some legs are still PENDING → bet stays PENDING
      */
-    private void evaluateMultiLegBetStatus(Bet bet, Event settledEvent) {
+    private void evaluateMultiLegBetStatus(Bet bet, Event settledEvent, SettlementBatch batch) {
         // Check if any leg has LOST
         if (bet.hasLostLeg()) {
             // Bet is lost immediately
-            bet.setStatus(BetStatus.LOST);
-            bet.setSettledAt(LocalDateTime.now());
-            betService.saveBet(bet);
+            batch.settle(bet, BetStatus.LOST);
+            batch.update(bet);
 
-            webSocketService.notifyUser(
+            batch.notify(
                     bet.getUserId(),
                     "BET_LOST",
                     String.format("Que pena! Sua aposta múltipla perdeu no evento '%s'.", settledEvent.getTitle()));
 
             // Publish for badge checking
-            eventPublisher.publishEvent(new BetSettledEvent(this, bet, "Aposta Múltipla"));
+            batch.publish(bet, "Aposta Múltipla");
 
-            log.info("Multi-leg bet {} LOST due to leg on event {}", bet.getId(), settledEvent.getId());
+            log.debug("Multi-leg bet {} LOST due to leg on event {}", bet.getId(), settledEvent.getId());
             return;
         }
 
         // Check if all legs are settled (WON or VOID)
         if (bet.allLegsWon()) {
             // Recalculate payout (in case of VOID legs, odd becomes 1.00)
-            BigDecimal effectiveTotalOdd = bet.getLegs().stream()
-                    .map(leg -> leg.getStatus() == LegStatus.VOID ? BigDecimal.ONE : leg.getLockedOdd())
-                    .reduce(BigDecimal.ONE, BigDecimal::multiply)
-                    .setScale(2, RoundingMode.HALF_UP);
+            long[] effectiveOdds = new long[bet.getLegs().size()];
+            for (int i = 0; i < effectiveOdds.length; i++) {
+                BetLeg leg = bet.getLegs().get(i);
+                effectiveOdds[i] = leg.getStatus() == LegStatus.VOID ? FixedPoint.ONE : FixedPoint.of(leg.getLockedOdd());
+            }
+            long effectiveTotalOddHundredths = FixedPoint.product(effectiveOdds);
 
-            BigDecimal effectivePayout = bet.getAmount().multiply(effectiveTotalOdd)
-                    .setScale(2, RoundingMode.HALF_UP);
+            BigDecimal effectiveTotalOdd = FixedPoint.toBigDecimal(effectiveTotalOddHundredths);
+            BigDecimal effectivePayout = FixedPoint.toBigDecimal(
+                    FixedPoint.multiply(FixedPoint.of(bet.getAmount()), effectiveTotalOddHundredths));
 
-            bet.setStatus(BetStatus.WON);
-            bet.setSettledAt(LocalDateTime.now());
+            batch.settle(bet, BetStatus.WON);
             bet.setTotalOdd(effectiveTotalOdd);
             bet.setPotentialPayout(effectivePayout);
-            betService.saveBet(bet);
+            batch.update(bet);
 
             // Credit wallet
-            walletService.credit(
-                    bet.getUserId(),
-                    effectivePayout,
-                    TransactionOrigin.BET_WIN,
-                    bet.getId());
+            batch.credit(bet.getUserId(), effectivePayout, TransactionOrigin.BET_WIN, bet.getId());
 
-            webSocketService.notifyUser(
+            batch.notify(
                     bet.getUserId(),
                     "BET_WON",
                     String.format("🎉 Parabéns! Você acertou TODAS as pernas! Ganhou R$ %.2f!", effectivePayout));
 
             // Publish for badge checking
-            eventPublisher.publishEvent(new BetSettledEvent(this, bet, "Aposta Múltipla"));
+            batch.publish(bet, "Aposta Múltipla");
 
-            log.info("Multi-leg bet {} WON! Payout: {}", bet.getId(), effectivePayout);
+            log.debug("Multi-leg bet {} WON! Payout: {}", bet.getId(), effectivePayout);
             return;
         }
 
         // Still have pending legs, just save the updated leg status
-        betService.saveBet(bet);
-        log.info("Multi-leg bet {} still has pending legs", bet.getId());
+        batch.update(bet);
+        log.debug("Multi-leg bet {} still has pending legs", bet.getId());
+    }
+
+    private void flushIfFull(SettlementBatch batch) {
+        if (batch.bets.size() >= chunkSize) {
+            flush(batch);
+        }
     }
 
     /**
-     * Cancel an event and void all related bets
+     * Write a chunk of settled bets with bulk operations: wallet credits first
+     * (so a bet is never marked settled before its payout is in), then the bet
+     * updates. The chunk is split into partitions by userId hash that are
+     * written concurrently; all of a user's writes land in the same partition,
+     * so they never race. Notifications and badge events go out once every
+     * partition succeeds.
+     *
+     * The chunk is recorded on the job before anything is written. Credits,
+     * loss streaks and profit stats carry a {@link ChunkMarker} and are written
+     * before the bets, so a crash at any point re-runs exactly this chunk, and
+     * the rerun completes what is missing without counting anything twice.
      */
-    @Transactional
-    public void cancelEvent(String eventId) {
-        Event event = eventService.findEventById(eventId);
+    private void flush(SettlementBatch batch) {
+        if (batch.bets.isEmpty()) {
+            return;
+        }
 
-        // Update event status
-        event.setStatus(EventStatus.CANCELED);
-        event.setUpdatedAt(LocalDateTime.now());
-        eventService.saveEvent(event);
+        SettlementJob job = batch.job;
+        ChunkMarker marker = new ChunkMarker(job.getId(), batch.lastBetId);
+        if (!batch.lastBetId.equals(job.getChunkEndBetId())) {
+            job.setChunkEndBetId(batch.lastBetId);
+            job.setUpdatedAt(LocalDateTime.now());
+            settlementJobRepository.save(job);
+        }
 
-        // Process multi-leg bets: mark the leg as VOID
-        List<Bet> multiLegBets = betService.findPendingBetsWithEventLeg(eventId);
+        List<List<WalletCredit>> creditPartitions = partitionByUser(batch.credits, WalletCredit::userId);
+        List<List<Bet>> betPartitions = partitionByUser(batch.bets, Bet::getUserId);
 
-        for (Bet bet : multiLegBets) {
-            if (bet.getLegs() == null)
+        List<CompletableFuture<Void>> writes = new ArrayList<>(parallelism);
+        for (int p = 0; p < parallelism; p++) {
+            List<WalletCredit> credits = creditPartitions.get(p);
+            List<Bet> bets = betPartitions.get(p);
+            if (bets.isEmpty()) {
                 continue;
+            }
+            writes.add(CompletableFuture.runAsync(() -> {
+                walletService.creditAll(marker, credits);
+                badgeProgressService.recordBetsSettled(marker, bets);
+                profitStatsService.recordSettledBets(marker, bets);
+                // Last, so a bet is only settled once all its writes are in
+                betService.saveSettledBets(bets);
+            }, settlementExecutor));
+        }
+        awaitAll(writes);
+
+        // Checkpoint the chunk before its side effects, so a restart never
+        // repeats them
+        checkpoint(job, batch.lastBetId, batch.bets.size());
+        leaderboardService.evictRankings();
+
+        // The chunk can no longer be re-run, so its markers can go
+        List<String> userIds = batch.bets.stream().map(Bet::getUserId).distinct().toList();
+        walletService.releaseCreditMarkers(marker, userIds);
+        badgeProgressService.releaseChunkMarkers(marker, userIds);
+        profitStatsService.releaseChunkMarkers(marker, batch.bets);
+
+        batch.notifications.forEach(n -> webSocketService.notifyUser(n.userId(), n.type(), n.message()));
+        if (!batch.settledByUser.isEmpty()) {
+            eventPublisher.publishEvent(new BetsSettledEvent(this, new LinkedHashMap<>(batch.settledByUser)));
+        }
+        batch.clear();
 
-            for (BetLeg leg : bet.getLegs()) {
-                if (leg.getEventId().equals(eventId)) {
-                    leg.setStatus(LegStatus.VOID);
-                    log.info("Leg VOIDED for bet {} on canceled event {}", bet.getId(), eventId);
-                }
+        log.info("Settlement job {} for event {}: {} bets written",
+                job.getId(), job.getEventId(), job.getProcessedCount());
+    }
+
+    private void checkpoint(SettlementJob job, String lastBetId, int written) {
+        job.setLastBetId(lastBetId);
+        job.setProcessedCount(job.getProcessedCount() + written);
+        job.setUpdatedAt(LocalDateTime.now());
+        settlementJobRepository.save(job);
+    }
+
+    private <T> List<List<T>> partitionByUser(List<T> items, Function<T, String> userId) {
+        List<List<T>> partitions = new ArrayList<>(parallelism);
+        for (int p = 0; p < parallelism; p++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (T item : items) {
+            partitions.get(Math.floorMod(userId.apply(item).hashCode(), parallelism)).add(item);
+        }
+        return partitions;
+    }
+
+    private void awaitAll(List<CompletableFuture<Void>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw e;
+        }
+    }
 
-            // Re-evaluate the bet
-            evaluateMultiLegBetStatus(bet, event);
+    /**
+     * Writes and side effects of one settlement chunk, accumulated until flush.
+     */
+    private static final class SettlementBatch {
+
+        private final SettlementJob job;
+        private final List<Bet> bets = new ArrayList<>();
+        private final List<WalletCredit> credits = new ArrayList<>();
+        private final List<UserNotification> notifications = new ArrayList<>();
+        private final Map<String, List<SettledBet>> settledByUser = new LinkedHashMap<>();
+        private String lastBetId;
+
+        SettlementBatch(SettlementJob job) {
+            this.job = job;
         }
 
-        // Refund legacy single bets on this event
-        List<Bet> legacyBets = betService.getPendingBetsForEvent(eventId);
-        for (Bet bet : legacyBets) {
-            if (bet.getLegs() != null && !bet.getLegs().isEmpty()) {
-                continue; // Already processed above
+        void update(Bet bet) {
+            bets.add(bet);
+        }
+
+        /**
+         * Give a bet its final status. A re-run chunk keeps the original
+         * settlement time, so the bet lands in the same profit buckets.
+         */
+        void settle(Bet bet, BetStatus status) {
+            bet.setStatus(status);
+            bet.setSettlementJobId(job.getId());
+            if (bet.getSettledAt() == null) {
+                bet.setSettledAt(LocalDateTime.now());
             }
+        }
 
-            // Refund the bet amount
-            walletService.credit(
-                    bet.getUserId(),
-                    bet.getAmount(),
-                    TransactionOrigin.BET_WIN, // Using BET_WIN for refund
-                    bet.getId());
+        void credit(String userId, BigDecimal amount, TransactionOrigin origin, String referenceId) {
+            credits.add(new WalletCredit(userId, amount, origin, referenceId));
+        }
 
-            bet.setStatus(BetStatus.WON); // Treat as won (refund)
-            bet.setSettledAt(LocalDateTime.now());
-            betService.saveBet(bet);
+        void notify(String userId, String type, String message) {
+            notifications.add(new UserNotification(userId, type, message));
+        }
 
-            webSocketService.notifyUser(
-                    bet.getUserId(),
-                    "EVENT_CANCELED",
-                    String.format("O evento '%s' foi cancelado. Seu valor de R$ %.2f foi devolvido.",
-                            event.getTitle(), bet.getAmount()));
+        void publish(Bet bet, String eventTitle) {
+            settledByUser.computeIfAbsent(bet.getUserId(), userId -> new ArrayList<>())
+                    .add(new SettledBet(bet, eventTitle));
+        }
+
+        void clear() {
+            bets.clear();
+            credits.clear();
+            notifications.clear();
+            settledByUser.clear();
         }
+    }
+
+    private SettlementJobResponse toResponse(SettlementJob job) {
+        return SettlementJobResponse.builder()
+                .id(job.getId())
+                .eventId(job.getEventId())
+                .type(job.getType())
+                .winnerOptionId(job.getWinnerOptionId())
+                .status(job.getStatus())
+                .processedCount(job.getProcessedCount())
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
 
-        // Broadcast event update
-        webSocketService.broadcastEventUpdate(eventService.toResponse(event));
+    private record UserNotification(String userId, String type, String message) {
     }
 }
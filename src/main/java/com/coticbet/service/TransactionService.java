@@ -2,6 +2,10 @@ package com.coticbet.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -27,7 +31,28 @@ public class TransactionService {
             BigDecimal amount,
             BigDecimal balanceAfter,
             String referenceId) {
-        Transaction transaction = Transaction.builder()
+        return transactionRepository.save(
+                newTransaction(userId, type, origin, amount, balanceAfter, referenceId));
+    }
+
+    /**
+     * Insert several ledger rows in one round trip
+     */
+    public List<Transaction> createTransactions(List<Transaction> transactions) {
+        return transactionRepository.insert(transactions);
+    }
+
+    /**
+     * Build an unsaved ledger row, for use with {@link #createTransactions(List)}
+     */
+    public Transaction newTransaction(
+            String userId,
+            TransactionType type,
+            TransactionOrigin origin,
+            BigDecimal amount,
+            BigDecimal balanceAfter,
+            String referenceId) {
+        return Transaction.builder()
                 .userId(userId)
                 .type(type)
                 .origin(origin)
@@ -36,8 +61,20 @@ public class TransactionService {
                 .referenceId(referenceId)
                 .createdAt(LocalDateTime.now())
                 .build();
+    }
+
+    /**
+     * Of the given reference ids, return those that already have a ledger row
+     * with the given origin
+     */
+    public Set<String> findRecordedReferenceIds(Collection<String> referenceIds, TransactionOrigin origin) {
+        return transactionRepository.findByReferenceIdInAndOrigin(referenceIds, origin).stream()
+                .map(Transaction::getReferenceId)
+                .collect(Collectors.toSet());
+    }
 
-        return transactionRepository.save(transaction);
+    public List<Transaction> findByReferenceId(String referenceId) {
+        return transactionRepository.findByReferenceId(referenceId);
     }
 
     public Page<Transaction> getUserTransactions(String userId, Pageable pageable) {
@@ -3,11 +3,31 @@ package com.coticbet.service;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.bson.Document;
+import org.bson.types.Decimal128;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.coticbet.domain.entity.Badge;
+import com.coticbet.domain.entity.Transaction;
 import com.coticbet.domain.entity.User;
 import com.coticbet.domain.enums.TransactionOrigin;
 import com.coticbet.domain.enums.TransactionType;
@@ -22,8 +42,16 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class WalletService {
 
+    /**
+     * Last bulk credit chunk applied to the user, per process (see
+     * {@link ChunkMarker}). Only ever touched by targeted updates.
+     */
+    private static final String CREDIT_MARKERS = "creditChunks";
+
     private final UserRepository userRepository;
     private final TransactionService transactionService;
+    private final WealthRankingService wealthRankingService;
+    private final MongoTemplate mongoTemplate;
 
     @Value("${app.daily-bonus-amount:100}")
     private BigDecimal dailyBonusAmount;
@@ -35,21 +63,23 @@ public class WalletService {
 
     @Transactional
     public BigDecimal claimDailyBonus(String userId) {
-        User user = findUserById(userId);
+        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
 
-        LocalDate today = LocalDate.now();
-        if (user.getLastDailyBonus() != null) {
-            LocalDate lastBonusDate = user.getLastDailyBonus().toLocalDate();
-            if (!lastBonusDate.isBefore(today)) {
-                throw new BusinessException("Daily bonus already claimed today");
-            }
-        }
+        // Only matches if the bonus was never claimed or was last claimed before today
+        Criteria notClaimedToday = new Criteria().orOperator(
+                Criteria.where("lastDailyBonus").is(null),
+                Criteria.where("lastDailyBonus").lt(startOfToday));
+
+        BigDecimal newBalance = applyBalanceChange(
+                userId,
+                dailyBonusAmount,
+                notClaimedToday,
+                new Update().set("lastDailyBonus", LocalDateTime.now()));
 
-        BigDecimal newBalance = user.getWalletBalance().add(dailyBonusAmount);
-        user.setWalletBalance(newBalance);
-        user.setLastDailyBonus(LocalDateTime.now());
-        user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
+        if (newBalance == null) {
+            assertUserExists(userId);
+            throw new BusinessException("Daily bonus already claimed today");
+        }
 
         transactionService.createTransaction(
                 userId,
@@ -68,11 +98,10 @@ public class WalletService {
             throw new BusinessException("Amount must be positive");
         }
 
-        User user = findUserById(userId);
-        BigDecimal newBalance = user.getWalletBalance().add(amount);
-        user.setWalletBalance(newBalance);
-        user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
+        BigDecimal newBalance = applyBalanceChange(userId, amount, null, new Update());
+        if (newBalance == null) {
+            throw new ResourceNotFoundException("User", userId);
+        }
 
         transactionService.createTransaction(
                 userId,
@@ -91,17 +120,15 @@ public class WalletService {
             throw new BusinessException("Amount must be positive");
         }
 
-        User user = findUserById(userId);
+        // Balance check and decrement happen in the same update
+        Criteria hasFunds = Criteria.where("walletBalance").gte(new Decimal128(amount));
 
-        if (user.getWalletBalance().compareTo(amount) < 0) {
+        BigDecimal newBalance = applyBalanceChange(userId, amount.negate(), hasFunds, new Update());
+        if (newBalance == null) {
+            assertUserExists(userId);
             throw new InsufficientBalanceException();
         }
 
-        BigDecimal newBalance = user.getWalletBalance().subtract(amount);
-        user.setWalletBalance(newBalance);
-        user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
-
         transactionService.createTransaction(
                 userId,
                 TransactionType.WITHDRAW,
@@ -113,13 +140,226 @@ public class WalletService {
         return newBalance;
     }
 
-    public boolean hasBalance(String userId, BigDecimal amount) {
-        User user = findUserById(userId);
-        return user.getWalletBalance().compareTo(amount) >= 0;
+    /**
+     * Award a badge and credit its reward in one atomic update, guarded so it
+     * only matches while the user does not hold the badge yet. Concurrent
+     * awards of the same badge can therefore push and pay it only once.
+     *
+     * @return the balance after the reward, or null if the badge was already earned
+     */
+    @Transactional
+    public BigDecimal awardBadge(String userId, Badge badge) {
+        Criteria notEarned = Criteria.where("badges.code").ne(badge.getCode());
+
+        BigDecimal newBalance = applyBalanceChange(
+                userId,
+                badge.getRewardAmount(),
+                notEarned,
+                new Update().push("badges", badge));
+
+        if (newBalance == null) {
+            assertUserExists(userId);
+            return null;
+        }
+
+        transactionService.createTransaction(
+                userId,
+                TransactionType.DEPOSIT,
+                TransactionOrigin.ACHIEVEMENT_REWARD,
+                badge.getRewardAmount(),
+                newBalance,
+                "BADGE_" + badge.getCode().name());
+
+        return newBalance;
+    }
+
+    /**
+     * Credit many wallets with a constant number of round trips: one unordered
+     * bulk with a single aggregated $inc per user, one $in read of the resulting
+     * balances and one batch insert of the itemized ledger rows.
+     *
+     * Each user's $inc records the chunk marker in the same single-document
+     * update and only matches while the chunk is not yet recorded, so
+     * re-running a chunk after a crash never pays twice. Ledger rows a crashed
+     * run did not get to write are written by the rerun. Call
+     * {@link #releaseCreditMarkers(ChunkMarker, Collection)} once the chunk can
+     * no longer be re-run.
+     */
+    @Transactional
+    public void creditAll(ChunkMarker marker, List<WalletCredit> credits) {
+        if (credits.isEmpty()) {
+            return;
+        }
+
+        for (WalletCredit credit : credits) {
+            if (credit.amount().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new BusinessException("Amount must be positive");
+            }
+            if (credit.referenceId() == null) {
+                throw new BusinessException("Bulk credits require a reference id");
+            }
+        }
+
+        // One increment per user, however many of their bets paid out
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        for (WalletCredit credit : credits) {
+            totals.merge(credit.userId(), credit.amount(), BigDecimal::add);
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        LocalDateTime now = LocalDateTime.now();
+        totals.forEach((userId, total) -> bulk.updateOne(
+                Query.query(Criteria.where("_id").is(userId)).addCriteria(marker.notApplied(CREDIT_MARKERS)),
+                marker.apply(new Update(), CREDIT_MARKERS)
+                        .inc("walletBalance", new Decimal128(total))
+                        .set("updatedAt", now)));
+        boolean allApplied = bulk.execute().getModifiedCount() == totals.size();
+
+        Map<String, CreditState> states = findCreditStates(marker, totals.keySet());
+        states.forEach((userId, state) -> wealthRankingService.updateBalance(userId, state.balance()));
+
+        // Ledger rows for every credited user, minus those a previous run already wrote
+        List<WalletCredit> unrecorded = new ArrayList<>();
+        for (WalletCredit credit : credits) {
+            CreditState state = states.get(credit.userId());
+            if (state != null && state.credited()) {
+                unrecorded.add(credit);
+            }
+        }
+        if (!allApplied) {
+            unrecorded.removeAll(findRecordedCredits(unrecorded));
+        }
+
+        // Walk back from each user's final balance so every itemized ledger row
+        // gets the balance right after its own credit
+        Map<String, BigDecimal> balances = new HashMap<>();
+        states.forEach((userId, state) -> balances.put(userId, state.balance()));
+        List<Transaction> ledger = new ArrayList<>(unrecorded.size());
+
+        for (int i = unrecorded.size() - 1; i >= 0; i--) {
+            WalletCredit credit = unrecorded.get(i);
+            BigDecimal balanceAfter = balances.get(credit.userId());
+
+            ledger.add(transactionService.newTransaction(
+                    credit.userId(),
+                    TransactionType.DEPOSIT,
+                    credit.origin(),
+                    credit.amount(),
+                    balanceAfter,
+                    credit.referenceId()));
+
+            if (balanceAfter != null) {
+                balances.put(credit.userId(), balanceAfter.subtract(credit.amount()));
+            }
+        }
+
+        Collections.reverse(ledger);
+        transactionService.createTransactions(ledger);
+    }
+
+    /**
+     * Drop the marker {@link #creditAll(ChunkMarker, List)} left on these
+     * users, with a single multi-document update. Markers of later chunks are
+     * left alone.
+     */
+    public void releaseCreditMarkers(ChunkMarker marker, Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(userIds)).addCriteria(marker.applied(CREDIT_MARKERS)),
+                new Update().unset(marker.path(CREDIT_MARKERS)),
+                User.class);
+    }
+
+    /**
+     * Same as {@link #releaseCreditMarkers(ChunkMarker, Collection)} for users
+     * that are no longer known, e.g. after a crash. Scans the users collection.
+     */
+    public void releaseCreditMarkers(ChunkMarker marker) {
+        mongoTemplate.updateMulti(
+                Query.query(marker.applied(CREDIT_MARKERS)),
+                new Update().unset(marker.path(CREDIT_MARKERS)),
+                User.class);
+    }
+
+    private Map<String, CreditState> findCreditStates(ChunkMarker marker, Collection<String> userIds) {
+        Query query = Query.query(Criteria.where("_id").in(userIds));
+        query.fields().include("walletBalance").include(marker.path(CREDIT_MARKERS));
+
+        Map<String, CreditState> states = new HashMap<>();
+        for (Document user : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(User.class))) {
+            Decimal128 balance = user.get("walletBalance", Decimal128.class);
+            Document markers = user.get(CREDIT_MARKERS, Document.class);
+            boolean credited = markers != null && marker.chunk().equals(markers.get(marker.process()));
+            states.put(user.getObjectId("_id").toHexString(),
+                    new CreditState(balance != null ? balance.bigDecimalValue() : null, credited));
+        }
+        return states;
+    }
+
+    private Set<WalletCredit> findRecordedCredits(List<WalletCredit> credits) {
+        Set<WalletCredit> recorded = new HashSet<>();
+        Map<TransactionOrigin, List<WalletCredit>> byOrigin = new EnumMap<>(TransactionOrigin.class);
+        credits.forEach(credit -> byOrigin.computeIfAbsent(credit.origin(), origin -> new ArrayList<>()).add(credit));
+
+        byOrigin.forEach((origin, group) -> {
+            Set<String> ids = transactionService.findRecordedReferenceIds(
+                    group.stream().map(WalletCredit::referenceId).toList(), origin);
+            group.stream().filter(credit -> ids.contains(credit.referenceId())).forEach(recorded::add);
+        });
+        return recorded;
+    }
+
+    /**
+     * Apply a balance delta as a single findAndModify round trip.
+     * The guard (if any) is evaluated atomically with the $inc, so concurrent
+     * operations on the same wallet can never overwrite each other.
+     *
+     * @return the balance after the update, or null when the user does not exist
+     *         or the guard did not match
+     */
+    private BigDecimal applyBalanceChange(String userId, BigDecimal delta, Criteria guard, Update update) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        if (guard != null) {
+            query.addCriteria(guard);
+        }
+        query.fields().include("walletBalance");
+
+        update.inc("walletBalance", new Decimal128(delta))
+                .set("updatedAt", LocalDateTime.now());
+
+        User updated = mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+
+        if (updated == null) {
+            return null;
+        }
+
+        wealthRankingService.updateBalance(userId, updated.getWalletBalance());
+        return updated.getWalletBalance();
+    }
+
+    private void assertUserExists(String userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", userId);
+        }
     }
 
     private User findUserById(String userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", userId));
     }
+
+    /**
+     * A single wallet credit, applied in bulk by {@link #creditAll(ChunkMarker, List)}
+     */
+    public record WalletCredit(String userId, BigDecimal amount, TransactionOrigin origin, String referenceId) {
+    }
+
+    private record CreditState(BigDecimal balance, boolean credited) {
+    }
 }
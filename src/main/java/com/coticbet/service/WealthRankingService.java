@@ -0,0 +1,150 @@
+package com.coticbet.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.bson.types.Decimal128;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.Role;
+import com.coticbet.service.ScoreBoard.Score;
+import com.coticbet.service.ScoreBoard.Window;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Live wallet balance ranking of non-admin users. Loaded once at startup and
+ * then kept current by {@link WalletService} on every balance change, so the
+ * wealth leaderboard is served from memory.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WealthRankingService {
+
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ScoreBoard board = new ScoreBoard();
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+    private final Set<String> admins = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Query query = rankedUsers().cursorBatchSize(LOAD_BATCH_SIZE);
+
+        int count = 0;
+        try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+            for (User user : (Iterable<User>) users::iterator) {
+                names.put(user.getId(), displayName(user));
+                board.put(user.getId(), user.getWalletBalance());
+                count++;
+            }
+        }
+
+        loaded = true;
+        log.info("Loaded wealth board with {} users", count);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Track a newly registered user, so they show up before their first
+     * balance change
+     */
+    public void register(User user) {
+        if (user.getRole() == Role.ADMIN) {
+            admins.add(user.getId());
+            return;
+        }
+        names.put(user.getId(), displayName(user));
+        board.put(user.getId(), user.getWalletBalance());
+    }
+
+    /**
+     * Record a user's balance after a wallet change. Users missing from the
+     * board are resolved once; admins are remembered and never ranked.
+     */
+    public void updateBalance(String userId, BigDecimal balance) {
+        if (balance == null || admins.contains(userId)) {
+            return;
+        }
+        if (!names.containsKey(userId) && !resolve(userId)) {
+            return;
+        }
+        board.put(userId, balance);
+    }
+
+    /**
+     * Up to limit richest users with a non-negative balance, richest first
+     */
+    public List<Score> top(int limit) {
+        return board.top(limit, balance -> balance.signum() >= 0);
+    }
+
+    /**
+     * A user's wealth rank with up to neighbours users on each side, among the
+     * same non-negative balances {@link #top(int)} ranks
+     */
+    public Window around(String userId, int neighbours) {
+        return board.around(userId, neighbours, true, balance -> balance.signum() >= 0);
+    }
+
+    public String nameOf(String userId) {
+        return names.get(userId);
+    }
+
+    /**
+     * Bounded, projected query for the top balances, for use before the board
+     * is loaded. Backed by the walletBalance index.
+     */
+    public List<User> findTop(int limit) {
+        Query query = rankedUsers()
+                .addCriteria(Criteria.where("walletBalance").gte(new Decimal128(BigDecimal.ZERO)))
+                .with(Sort.by(Sort.Direction.DESC, "walletBalance"))
+                .limit(limit);
+        return mongoTemplate.find(query, User.class);
+    }
+
+    public static String displayName(User user) {
+        return user.getName() != null ? user.getName() : user.getEmail().split("@")[0];
+    }
+
+    private boolean resolve(String userId) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        query.fields().include("name").include("email").include("role");
+
+        User user = mongoTemplate.findOne(query, User.class);
+        if (user == null) {
+            return false;
+        }
+        if (user.getRole() == Role.ADMIN) {
+            admins.add(userId);
+            return false;
+        }
+        names.put(userId, displayName(user));
+        return true;
+    }
+
+    private static Query rankedUsers() {
+        Query query = Query.query(Criteria.where("role").ne(Role.ADMIN));
+        query.fields().include("name").include("email").include("walletBalance");
+        return query;
+    }
+}
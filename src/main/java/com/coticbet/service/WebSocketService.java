@@ -1,22 +1,213 @@
 package com.coticbet.service;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.coticbet.domain.enums.EventStatus;
+import com.coticbet.dto.response.EventDeltaMessage;
+import com.coticbet.dto.response.EventDeltaMessage.OptionDelta;
+import com.coticbet.dto.response.EventOptionResponse;
 import com.coticbet.dto.response.EventResponse;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class WebSocketService {
 
+    /**
+     * Full EventResponse on every update, the shape existing clients expect
+     */
+    public static final String EVENTS_TOPIC = "/topic/events";
+
+    /**
+     * Opt-in stream of EventDeltaMessage, with a full EventResponse whenever
+     * more than option pricing changed
+     */
+    public static final String EVENT_DELTAS_TOPIC = "/topic/events/delta";
+
     private final SimpMessagingTemplate messagingTemplate;
 
+    /**
+     * Latest unsent state per eventId, drained by {@link #flushEventUpdates()}
+     */
+    private final Map<String, EventResponse> pendingEventUpdates = new ConcurrentHashMap<>();
+
+    /**
+     * Last state sent per eventId to the delta topic (sequence included), used
+     * to encode deltas
+     */
+    private final Map<String, EventResponse> lastPublished = new ConcurrentHashMap<>();
+
+    /**
+     * Last sequence sent per eventId to the full state topic
+     */
+    private final Map<String, Long> fullSequences = new ConcurrentHashMap<>();
+
+    private final Counter publishedEventUpdates;
+    private final Counter conflatedEventUpdates;
+    private final Counter droppedEventUpdates;
+
+    public WebSocketService(SimpMessagingTemplate messagingTemplate, MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.publishedEventUpdates = Counter.builder("websocket.events.published")
+                .description("Event updates sent to the event topics")
+                .register(meterRegistry);
+        this.conflatedEventUpdates = Counter.builder("websocket.events.conflated")
+                .description("Event updates replaced by a newer state before being sent")
+                .register(meterRegistry);
+        this.droppedEventUpdates = Counter.builder("websocket.events.dropped")
+                .description("Event updates that failed to send")
+                .register(meterRegistry);
+        Gauge.builder("websocket.events.pending", pendingEventUpdates, Map::size)
+                .description("Event updates waiting for the next flush")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue an event update for broadcast. Only the latest state per event is
+     * kept until the next flush, so a burst of changes to one event goes out as
+     * a single message.
+     */
     public void broadcastEventUpdate(EventResponse event) {
-        messagingTemplate.convertAndSend("/topic/events", event);
+        if (pendingEventUpdates.put(event.getId(), event) != null) {
+            conflatedEventUpdates.increment();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.websocket.event-flush-interval:250}")
+    public void flushEventUpdates() {
+        for (String eventId : pendingEventUpdates.keySet()) {
+            EventResponse latest = pendingEventUpdates.remove(eventId);
+            if (latest != null) {
+                publishEventUpdate(latest);
+            }
+        }
+    }
+
+    /**
+     * Last state published for an event, with its sequence number. This is the
+     * base the following deltas apply to.
+     */
+    public Optional<EventResponse> lastPublishedEvent(String eventId) {
+        return Optional.ofNullable(lastPublished.get(eventId));
+    }
+
+    /**
+     * Send the full state to /topic/events, and to /topic/events/delta either a
+     * delta when only option pricing changed since the last published state or
+     * the full state otherwise. Each topic numbers its own messages and only
+     * moves on once its send succeeds, so a failed send on one topic leaves no
+     * gap in the other and never advances the delta base.
+     */
+    private void publishEventUpdate(EventResponse latest) {
+        String eventId = latest.getId();
+        EventResponse previous = lastPublished.get(eventId);
+        long deltaSequence = previous != null ? previous.getSequence() + 1 : 1;
+
+        Object delta;
+        if (previous != null && sameStructure(previous, latest)) {
+            List<OptionDelta> changed = changedOptions(previous, latest);
+            if (changed.isEmpty()) {
+                return;
+            }
+            delta = EventDeltaMessage.builder()
+                    .eventId(eventId)
+                    .sequence(deltaSequence)
+                    .options(changed)
+                    .build();
+        } else {
+            delta = latest;
+        }
+
+        // Messages are serialized on send, so latest can be renumbered in between
+        long fullSequence = fullSequences.getOrDefault(eventId, 0L) + 1;
+        latest.setSequence(fullSequence);
+        if (send(EVENTS_TOPIC, latest, eventId)) {
+            fullSequences.put(eventId, fullSequence);
+            publishedEventUpdates.increment();
+        }
+
+        latest.setSequence(deltaSequence);
+        if (send(EVENT_DELTAS_TOPIC, delta, eventId)) {
+            lastPublished.put(eventId, latest);
+        }
+
+        // Final states get no further updates
+        if (latest.getStatus() == EventStatus.SETTLED || latest.getStatus() == EventStatus.CANCELED) {
+            fullSequences.remove(eventId);
+            lastPublished.remove(eventId);
+        }
+    }
+
+    private boolean send(String topic, Object payload, String eventId) {
+        try {
+            messagingTemplate.convertAndSend(topic, payload);
+            return true;
+        } catch (MessagingException e) {
+            droppedEventUpdates.increment();
+            log.warn("Failed to broadcast update for event {} to {}: {}", eventId, topic, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean sameStructure(EventResponse previous, EventResponse latest) {
+        if (!Objects.equals(previous.getTitle(), latest.getTitle())
+                || previous.getStatus() != latest.getStatus()
+                || previous.getCategory() != latest.getCategory()
+                || previous.getPricingModel() != latest.getPricingModel()
+                || !Objects.equals(previous.getCommenceTime(), latest.getCommenceTime())
+                || !Objects.equals(previous.getWinnerOptionId(), latest.getWinnerOptionId())
+                || previous.getOptions().size() != latest.getOptions().size()) {
+            return false;
+        }
+
+        for (int i = 0; i < latest.getOptions().size(); i++) {
+            EventOptionResponse before = previous.getOptions().get(i);
+            EventOptionResponse after = latest.getOptions().get(i);
+            if (!Objects.equals(before.getId(), after.getId()) || !Objects.equals(before.getName(), after.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Options whose odd or stake changed; both must have the same structure.
+     */
+    private List<OptionDelta> changedOptions(EventResponse previous, EventResponse latest) {
+        List<OptionDelta> changed = new ArrayList<>();
+
+        for (int i = 0; i < latest.getOptions().size(); i++) {
+            EventOptionResponse before = previous.getOptions().get(i);
+            EventOptionResponse after = latest.getOptions().get(i);
+            if (!sameAmount(before.getCurrentOdd(), after.getCurrentOdd())
+                    || !sameAmount(before.getTotalStaked(), after.getTotalStaked())) {
+                changed.add(OptionDelta.builder()
+                        .id(after.getId())
+                        .currentOdd(after.getCurrentOdd())
+                        .totalStaked(after.getTotalStaked())
+                        .build());
+            }
+        }
+        return changed;
+    }
+
+    private boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
     }
 
     public void broadcastAdminRequest(Object request) {
@@ -0,0 +1,101 @@
+package com.coticbet.domain.value;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * FixedPoint must round exactly like BigDecimal with setScale(2, HALF_UP).
+ */
+class FixedPointTest {
+
+    private static final int SAMPLES = 200_000;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void multiplyMatchesBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            long a = randomSigned(10_000_000);
+            long b = randomSigned(100_000);
+
+            BigDecimal expected = decimal(a).multiply(decimal(b)).setScale(2, RoundingMode.HALF_UP);
+            assertThat(FixedPoint.multiply(a, b)).as("%d * %d", a, b).isEqualTo(FixedPoint.of(expected));
+        }
+    }
+
+    @Test
+    void divideMatchesBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            long a = randomSigned(100_000_000);
+            long b = randomSigned(1_000_000);
+            if (b == 0) {
+                continue;
+            }
+
+            BigDecimal expected = decimal(a).divide(decimal(b), 2, RoundingMode.HALF_UP);
+            assertThat(FixedPoint.divide(a, b)).as("%d / %d", a, b).isEqualTo(FixedPoint.of(expected));
+        }
+    }
+
+    @Test
+    void productRoundsOnceLikeBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            long[] odds = new long[1 + random.nextInt(8)];
+            BigDecimal expected = BigDecimal.ONE;
+            for (int j = 0; j < odds.length; j++) {
+                odds[j] = 101 + random.nextInt(2_000);
+                expected = expected.multiply(decimal(odds[j]));
+            }
+
+            assertThat(FixedPoint.product(odds)).isEqualTo(FixedPoint.of(expected));
+        }
+    }
+
+    @Test
+    void productFallsBackToBigDecimalOnOverflow() {
+        // 1.5^10 needs 20 decimal places exact, which overflows a long
+        long[] odds = new long[10];
+        Arrays.fill(odds, 150);
+
+        assertThat(FixedPoint.product(odds))
+                .isEqualTo(FixedPoint.of(new BigDecimal("1.50").pow(10)));
+
+        for (int i = 0; i < 1_000; i++) {
+            long[] parlay = new long[10 + random.nextInt(6)];
+            BigDecimal expected = BigDecimal.ONE;
+            for (int j = 0; j < parlay.length; j++) {
+                parlay[j] = 101 + random.nextInt(400);
+                expected = expected.multiply(decimal(parlay[j]));
+            }
+
+            assertThat(FixedPoint.product(parlay)).isEqualTo(FixedPoint.of(expected));
+        }
+    }
+
+    @Test
+    void productOfNoFactorsIsOne() {
+        assertThat(FixedPoint.product(new long[0])).isEqualTo(FixedPoint.ONE);
+    }
+
+    @Test
+    void multiplyFailsInsteadOfWrappingOnOverflow() {
+        assertThatThrownBy(() -> FixedPoint.multiply(Long.MAX_VALUE / 10, 1_000))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    private long randomSigned(int bound) {
+        long value = random.nextInt(bound);
+        return random.nextBoolean() ? value : -value;
+    }
+
+    private static BigDecimal decimal(long hundredths) {
+        return BigDecimal.valueOf(hundredths, 2);
+    }
+}
@@ -0,0 +1,148 @@
+package com.coticbet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+
+import com.coticbet.domain.entity.BadgeProgress;
+import com.coticbet.domain.entity.Bet;
+import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.BetStatus;
+import com.coticbet.repository.UserRepository;
+
+/**
+ * The badge counters must match what a scan of the bet history would find:
+ * placements are counted atomically, loss streaks follow settlement order and
+ * a re-run settlement chunk is not counted twice.
+ */
+@DataMongoTest
+@Import(BadgeProgressService.class)
+class BadgeProgressServiceTest extends MongoContainerTest {
+
+    private static final int THREADS = 16;
+
+    // A Wednesday
+    private static final LocalDateTime WORK_HOURS = LocalDateTime.of(2026, 10, 14, 10, 30);
+    private static final LocalDateTime EVENING = LocalDateTime.of(2026, 10, 14, 20, 0);
+
+    @Autowired
+    private BadgeProgressService badgeProgressService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String userId;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        userId = userRepository.save(User.builder()
+                .email("badges@coticbet.com")
+                .walletBalance(new BigDecimal("100.00"))
+                .build()).getId();
+    }
+
+    @Test
+    void concurrentPlacementsAreAllCounted() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    badgeProgressService.recordBetPlaced(bet(new BigDecimal("0.50"), WORK_HOURS, null));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BadgeProgress progress = progress();
+        assertThat(progress.getMicroBetCount()).isEqualTo(THREADS);
+        assertThat(progress.getWorkHourBetDay()).isEqualTo(WORK_HOURS.toLocalDate());
+        assertThat(progress.getWorkHourBetCount()).isEqualTo(THREADS);
+    }
+
+    @Test
+    void workHourCountRestartsOnAnotherDayAndSkipsOffHours() {
+        badgeProgressService.recordBetPlaced(bet(new BigDecimal("5.00"), WORK_HOURS, null));
+        badgeProgressService.recordBetPlaced(bet(new BigDecimal("5.00"), WORK_HOURS.plusHours(1), null));
+        badgeProgressService.recordBetPlaced(bet(new BigDecimal("5.00"), EVENING, null));
+
+        BadgeProgress progress = progress();
+        assertThat(progress.getWorkHourBetCount()).isEqualTo(2);
+        assertThat(progress.getMicroBetCount()).isZero();
+
+        LocalDateTime nextDay = WORK_HOURS.plusDays(1);
+        badgeProgressService.recordBetPlaced(bet(new BigDecimal("1.00"), nextDay, null));
+
+        progress = progress();
+        assertThat(progress.getWorkHourBetDay()).isEqualTo(LocalDate.of(2026, 10, 15));
+        assertThat(progress.getWorkHourBetCount()).isEqualTo(1);
+        assertThat(progress.getMicroBetCount()).isEqualTo(1);
+    }
+
+    @Test
+    void lossStreakFollowsSettlementOrderAndIgnoresReplayedChunks() {
+        ChunkMarker first = new ChunkMarker("job", "000000000000000000000001");
+        badgeProgressService.recordBetsSettled(first, List.of(
+                settled(BetStatus.LOST), settled(BetStatus.LOST), settled(BetStatus.PENDING)));
+        assertThat(progress().getLossStreak()).isEqualTo(2);
+
+        // Re-running the same chunk after a crash changes nothing
+        badgeProgressService.recordBetsSettled(first, List.of(settled(BetStatus.LOST), settled(BetStatus.LOST)));
+        assertThat(progress().getLossStreak()).isEqualTo(2);
+
+        badgeProgressService.releaseChunkMarkers(first, List.of(userId));
+        ChunkMarker second = new ChunkMarker("job", "000000000000000000000002");
+        badgeProgressService.recordBetsSettled(second, List.of(settled(BetStatus.LOST)));
+        assertThat(progress().getLossStreak()).isEqualTo(3);
+
+        // A win resets the streak to the losses settled after it
+        ChunkMarker third = new ChunkMarker("job", "000000000000000000000003");
+        badgeProgressService.recordBetsSettled(third, List.of(
+                settled(BetStatus.LOST), settled(BetStatus.WON), settled(BetStatus.LOST)));
+        assertThat(progress().getLossStreak()).isEqualTo(1);
+
+        // An older chunk of the same job is already covered by a later marker
+        badgeProgressService.recordBetsSettled(second, List.of(settled(BetStatus.LOST)));
+        assertThat(progress().getLossStreak()).isEqualTo(1);
+    }
+
+    private BadgeProgress progress() {
+        return userRepository.findById(userId).orElseThrow().getBadgeProgress();
+    }
+
+    private Bet bet(BigDecimal amount, LocalDateTime createdAt, BetStatus status) {
+        return Bet.builder()
+                .userId(userId)
+                .amount(amount)
+                .status(status != null ? status : BetStatus.PENDING)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private Bet settled(BetStatus status) {
+        return bet(BigDecimal.TEN, EVENING, status);
+    }
+}
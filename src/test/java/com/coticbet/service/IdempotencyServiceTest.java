@@ -0,0 +1,247 @@
+package com.coticbet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.coticbet.domain.entity.Bet;
+import com.coticbet.domain.entity.Event;
+import com.coticbet.domain.entity.EventOption;
+import com.coticbet.domain.entity.IdempotencyRecord;
+import com.coticbet.domain.entity.Transaction;
+import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.EventStatus;
+import com.coticbet.domain.enums.IdempotencyStatus;
+import com.coticbet.domain.enums.PricingModel;
+import com.coticbet.domain.enums.TransactionOrigin;
+import com.coticbet.dto.request.PlaceBetRequest;
+import com.coticbet.dto.response.BetResponse;
+import com.coticbet.exception.BusinessException;
+import com.coticbet.repository.BetRepository;
+import com.coticbet.repository.IdempotencyRecordRepository;
+import com.coticbet.repository.UserRepository;
+import com.coticbet.service.IdempotencyService.Fence;
+import com.coticbet.service.IdempotencyService.Placement;
+
+/**
+ * A retried Idempotency-Key must place its bet once: replays return the stored
+ * response, failed placements give the stake back, and a retry that reclaims
+ * the key of a stalled attempt never leaves that attempt's bet or debit behind.
+ */
+@DataMongoTest(properties = "app.idempotency.lease=300ms")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ IdempotencyService.class, BetService.class, EventService.class, OddsBook.class,
+        ParimutuelOddsEngine.class, BadgeProgressService.class, WalletService.class, TransactionService.class,
+        WealthRankingService.class })
+class IdempotencyServiceTest extends MongoContainerTest {
+
+    private static final BigDecimal BALANCE = new BigDecimal("100.00");
+    private static final BigDecimal STAKE = new BigDecimal("10.00");
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private BetService betService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @MockBean
+    private WebSocketService webSocketService;
+
+    private String userId;
+    private PlaceBetRequest request;
+
+    @BeforeEach
+    void setUp() {
+        // Clear documents but keep the indexes, the unique key index above all
+        for (String collection : mongoTemplate.getCollectionNames()) {
+            mongoTemplate.remove(new Query(), collection);
+        }
+
+        userId = userRepository.save(User.builder()
+                .email("retry@coticbet.com")
+                .walletBalance(BALANCE)
+                .build()).getId();
+
+        Event event = mongoTemplate.insert(Event.builder()
+                .title("Final")
+                .status(EventStatus.OPEN)
+                .pricingModel(PricingModel.FIXED_ODDS)
+                .options(List.of(EventOption.builder()
+                        .id("home")
+                        .name("Home")
+                        .currentOdd(new BigDecimal("2.00"))
+                        .seedOdd(new BigDecimal("2.00"))
+                        .build()))
+                .build());
+
+        request = PlaceBetRequest.builder()
+                .selections(List.of(new PlaceBetRequest.BetSelection(event.getId(), "home")))
+                .amount(STAKE)
+                .build();
+    }
+
+    @Test
+    void replayReturnsStoredResponseWithoutPlacingAgain() {
+        AtomicInteger placements = new AtomicInteger();
+        Placement placement = (betId, fence) -> {
+            placements.incrementAndGet();
+            return betService.placeBet(userId, request, betId, fence);
+        };
+
+        BetResponse first = idempotencyService.placeOnce(userId, "key", request, placement);
+        BetResponse replay = idempotencyService.placeOnce(userId, "key", request, placement);
+
+        assertThat(replay.getId()).isEqualTo(first.getId());
+        assertThat(placements).hasValue(1);
+        assertThat(betRepository.count()).isEqualTo(1);
+        assertBalance(BALANCE.subtract(STAKE));
+
+        PlaceBetRequest other = PlaceBetRequest.builder()
+                .selections(request.getSelections())
+                .amount(new BigDecimal("20.00"))
+                .build();
+        assertThatThrownBy(() -> idempotencyService.placeOnce(userId, "key", other, placement))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void failureBeforeTheBetIsKeptRefundsTheDebitAndReleasesTheKey() {
+        Placement failing = (betId, fence) -> betService.placeBet(userId, request, betId, new Fence() {
+            @Override
+            public void beforeDebit() {
+                fence.beforeDebit();
+            }
+
+            @Override
+            public void afterSave() {
+                throw new IllegalStateException("lost connection");
+            }
+        });
+
+        assertThatThrownBy(() -> idempotencyService.placeOnce(userId, "key", request, failing))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(betRepository.count()).isZero();
+        assertThat(idempotencyRecordRepository.count()).isZero();
+        assertBalance(BALANCE);
+        assertThat(ledger(TransactionOrigin.BET_WIN)).hasSize(1);
+
+        BetResponse retry = idempotencyService.placeOnce(userId, "key", request,
+                (betId, fence) -> betService.placeBet(userId, request, betId, fence));
+        assertThat(betRepository.findById(retry.getId())).isPresent();
+        assertBalance(BALANCE.subtract(STAKE));
+    }
+
+    @Test
+    void failureAfterTheBetIsPlacedCompletesTheKey() {
+        doThrow(new IllegalStateException("broker down")).when(webSocketService).broadcastEventUpdate(any());
+        Placement placement = (betId, fence) -> betService.placeBet(userId, request, betId, fence);
+
+        assertThatThrownBy(() -> idempotencyService.placeOnce(userId, "key", request, placement))
+                .isInstanceOf(IllegalStateException.class);
+
+        IdempotencyRecord record = idempotencyRecordRepository.findByUserIdAndKey(userId, "key").orElseThrow();
+        assertThat(record.getStatus()).isEqualTo(IdempotencyStatus.COMPLETED);
+        assertThat(betRepository.findById(record.getBetId())).isPresent();
+        assertThat(ledger(TransactionOrigin.BET_WIN)).isEmpty();
+
+        BetResponse replay = idempotencyService.placeOnce(userId, "key", request, placement);
+        assertThat(replay.getId()).isEqualTo(record.getBetId());
+        assertThat(betRepository.count()).isEqualTo(1);
+        assertBalance(BALANCE.subtract(STAKE));
+    }
+
+    @Test
+    void reclaimedAttemptCannotKeepItsBetOrItsDebit() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        // Renews its lease, then stalls past it before debiting
+        Placement stalling = (betId, fence) -> betService.placeBet(userId, request, betId, new Fence() {
+            @Override
+            public void beforeDebit() {
+                fence.beforeDebit();
+                stalled.countDown();
+                try {
+                    resume.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void afterSave() {
+                fence.afterSave();
+            }
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<BetResponse> original = executor.submit(
+                    () -> idempotencyService.placeOnce(userId, "key", request, stalling));
+            assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(600);
+
+            BetResponse retry = idempotencyService.placeOnce(userId, "key", request,
+                    (betId, fence) -> betService.placeBet(userId, request, betId, fence));
+
+            resume.countDown();
+            assertThatThrownBy(original::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(BusinessException.class);
+
+            List<Bet> bets = betRepository.findAll();
+            assertThat(bets).extracting(Bet::getId).containsExactly(retry.getId());
+            assertThat(ledger(TransactionOrigin.BET_ENTRY)).hasSize(2);
+            assertThat(ledger(TransactionOrigin.BET_WIN)).hasSize(1);
+            assertBalance(BALANCE.subtract(STAKE));
+        } finally {
+            resume.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertBalance(BigDecimal expected) {
+        assertThat(userRepository.findById(userId).orElseThrow().getWalletBalance())
+                .isEqualByComparingTo(expected);
+    }
+
+    private List<Transaction> ledger(TransactionOrigin origin) {
+        return mongoTemplate.findAll(Transaction.class).stream()
+                .filter(t -> t.getOrigin() == origin)
+                .toList();
+    }
+}
@@ -0,0 +1,190 @@
+package com.coticbet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.coticbet.domain.entity.Bet;
+import com.coticbet.domain.entity.BetLeg;
+import com.coticbet.domain.entity.Event;
+import com.coticbet.domain.entity.EventOption;
+import com.coticbet.domain.entity.SettlementJob;
+import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.BetStatus;
+import com.coticbet.domain.enums.EventStatus;
+import com.coticbet.domain.enums.LegStatus;
+import com.coticbet.domain.enums.PricingModel;
+import com.coticbet.domain.enums.ProfitPeriod;
+import com.coticbet.domain.enums.SettlementJobStatus;
+import com.coticbet.dto.response.LeaderboardEntry;
+import com.coticbet.repository.SettlementJobRepository;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * The leaderboard cache is the bounded, expiring Caffeine cache configured in
+ * application.yml, keys its period rankings by period start and is emptied
+ * by every settled chunk, so a ranking never outlives the bets it was built
+ * from.
+ */
+// Own database: the profit boards load on ApplicationReadyEvent and must not
+// pick up stats other test classes left behind
+@DataMongoTest(properties = "spring.data.mongodb.database=leaderboard-cache")
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Import({ LeaderboardService.class, SettlementService.class, EventService.class, BetService.class,
+        WalletService.class, TransactionService.class, WealthRankingService.class, BadgeProgressService.class,
+        ProfitStatsService.class, OddsBook.class, ParimutuelOddsEngine.class,
+        SettlementServiceTest.SettlementExecutors.class })
+class LeaderboardCacheTest extends MongoContainerTest {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private SettlementJobRepository settlementJobRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @MockBean
+    private WebSocketService webSocketService;
+
+    private CaffeineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clean();
+        cache = (CaffeineCache) cacheManager.getCache("leaderboard");
+        cache.clear();
+    }
+
+    @AfterEach
+    void clean() {
+        for (String collection : mongoTemplate.getCollectionNames()) {
+            mongoTemplate.remove(new Query(), collection);
+        }
+    }
+
+    @Test
+    void cacheIsBoundedExpiringAndRecordsStats() {
+        Policy<Object, Object> policy = cache.getNativeCache().policy();
+
+        assertThat(policy.eviction()).hasValueSatisfying(
+                eviction -> assertThat(eviction.getMaximum()).isEqualTo(200));
+        assertThat(policy.expireAfterWrite()).hasValueSatisfying(
+                expiration -> assertThat(expiration.getExpiresAfter()).isEqualTo(Duration.ofMinutes(5)));
+        assertThat(policy.isRecordingStats()).isTrue();
+    }
+
+    @Test
+    void periodRankingsAreKeyedByPeriodStart() {
+        CacheStats before = cache.getNativeCache().stats();
+
+        leaderboardService.getProfitRanking();
+        leaderboardService.getProfitRanking();
+        leaderboardService.getLossRanking();
+
+        assertThat(cache.getNativeCache().asMap().keySet()).containsExactlyInAnyOrder(
+                "profit_monthly_" + ProfitPeriod.MONTH.currentStart(),
+                "loss_weekly_" + ProfitPeriod.WEEK.currentStart());
+        CacheStats stats = cache.getNativeCache().stats().minus(before);
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void settlementEvictsCachedRankings() {
+        User winner = mongoTemplate.insert(User.builder()
+                .email("winner@coticbet.com")
+                .name("winner")
+                .walletBalance(new BigDecimal("100.00"))
+                .build());
+        Event event = mongoTemplate.insert(Event.builder()
+                .title("Final")
+                .status(EventStatus.LOCKED)
+                .pricingModel(PricingModel.FIXED_ODDS)
+                .options(List.of(option("home"), option("away")))
+                .build());
+        mongoTemplate.insert(bet(winner, event));
+
+        assertThat(leaderboardService.getProfitRanking()).isEmpty();
+
+        String jobId = settlementService.settleEvent(event.getId(), "home").getId();
+        awaitCompletion(jobId);
+
+        assertThat(leaderboardService.getProfitRanking()).singleElement().satisfies(entry -> {
+            assertThat(entry.getUserId()).isEqualTo(winner.getId());
+            assertThat(entry.getValue()).isEqualByComparingTo("10.00");
+        });
+    }
+
+    private void awaitCompletion(String jobId) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            SettlementJob job = settlementJobRepository.findById(jobId).orElseThrow();
+            if (job.getStatus() != SettlementJobStatus.RUNNING) {
+                assertThat(job.getStatus()).as("job error: %s", job.getError())
+                        .isEqualTo(SettlementJobStatus.COMPLETED);
+                return;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new AssertionError("Settlement job " + jobId + " did not finish");
+    }
+
+    private static EventOption option(String id) {
+        return EventOption.builder()
+                .id(id)
+                .name(id)
+                .currentOdd(new BigDecimal("2.00"))
+                .seedOdd(new BigDecimal("2.00"))
+                .build();
+    }
+
+    private static Bet bet(User user, Event event) {
+        return Bet.builder()
+                .userId(user.getId())
+                .legs(new ArrayList<>(List.of(BetLeg.builder()
+                        .eventId(event.getId())
+                        .eventTitle(event.getTitle())
+                        .chosenOptionId("home")
+                        .lockedOdd(new BigDecimal("2.00"))
+                        .status(LegStatus.PENDING)
+                        .build())))
+                .totalOdd(new BigDecimal("2.00"))
+                .amount(new BigDecimal("10.00"))
+                .potentialPayout(new BigDecimal("20.00"))
+                .status(BetStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
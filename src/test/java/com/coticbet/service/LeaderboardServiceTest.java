@@ -0,0 +1,130 @@
+package com.coticbet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.coticbet.domain.entity.Bet;
+import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.BetStatus;
+import com.coticbet.domain.enums.Role;
+import com.coticbet.dto.response.LeaderboardEntry;
+import com.coticbet.exception.BusinessException;
+
+/**
+ * The custom-period profit and loss rankings are computed by an aggregation
+ * over settled bets: only bets settled inside the range count, admins never
+ * take a top slot, and the limit still yields a full board.
+ */
+@DataMongoTest
+@Import({ LeaderboardService.class, ProfitStatsService.class, WealthRankingService.class })
+class LeaderboardServiceTest extends MongoContainerTest {
+
+    private static final int WINNERS = 12;
+    private static final LocalDate FROM = LocalDate.of(2026, 10, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 10, 7);
+    private static final BigDecimal STAKE = new BigDecimal("10.00");
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private User admin;
+    private User loser;
+
+    @BeforeEach
+    void setUp() {
+        for (String collection : mongoTemplate.getCollectionNames()) {
+            mongoTemplate.remove(new Query(), collection);
+        }
+
+        // winner1 has made 1.00 in the range, winner12 12.00
+        for (int i = 1; i <= WINNERS; i++) {
+            User winner = user("winner" + i, Role.USER);
+            mongoTemplate.insert(bet(winner, BetStatus.WON, STAKE.add(BigDecimal.valueOf(i)), FROM.atTime(12, 0)));
+        }
+
+        admin = user("admin", Role.ADMIN);
+        mongoTemplate.insert(bet(admin, BetStatus.WON, new BigDecimal("1000.00"), TO.atTime(23, 59)));
+        mongoTemplate.insert(bet(admin, BetStatus.LOST, new BigDecimal("0.00"), TO.atTime(23, 59)));
+
+        loser = user("loser", Role.USER);
+        mongoTemplate.insert(bet(loser, BetStatus.LOST, STAKE.multiply(BigDecimal.TWO), TO.atTime(8, 0)));
+        mongoTemplate.insert(bet(loser, BetStatus.LOST, STAKE.multiply(BigDecimal.TWO), TO.atTime(9, 0)));
+        // Outside the range or not settled: ignored
+        mongoTemplate.insert(bet(loser, BetStatus.WON, new BigDecimal("500.00"), TO.plusDays(1).atStartOfDay()));
+        mongoTemplate.insert(bet(loser, BetStatus.WON, new BigDecimal("500.00"), FROM.minusDays(1).atTime(23, 59)));
+        mongoTemplate.insert(bet(loser, BetStatus.PENDING, new BigDecimal("500.00"), null));
+    }
+
+    @Test
+    void profitRankingFillsTheBoardWithoutAdmins() {
+        List<LeaderboardEntry> ranking = leaderboardService.getProfitRanking(FROM, TO, true);
+
+        assertThat(ranking).hasSize(10);
+        assertThat(ranking).extracting(LeaderboardEntry::getUserId).doesNotContain(admin.getId(), loser.getId());
+        assertThat(ranking).extracting(LeaderboardEntry::getRank).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+
+        LeaderboardEntry first = ranking.get(0);
+        assertThat(first.getName()).isEqualTo("winner12");
+        assertThat(first.getValue()).isEqualByComparingTo("12.00");
+        assertThat(first.getValueLabel()).isEqualTo("+ R$ 12.00");
+        assertThat(ranking.get(9).getName()).isEqualTo("winner3");
+    }
+
+    @Test
+    void lossRankingSumsOnlyBetsSettledInTheRange() {
+        List<LeaderboardEntry> ranking = leaderboardService.getProfitRanking(FROM, TO, false);
+
+        assertThat(ranking).singleElement().satisfies(entry -> {
+            assertThat(entry.getUserId()).isEqualTo(loser.getId());
+            assertThat(entry.getValue()).isEqualByComparingTo("-40.00");
+            assertThat(entry.getValueLabel()).isEqualTo("- R$ 40.00");
+        });
+    }
+
+    @Test
+    void rejectsAnInvertedRange() {
+        assertThatThrownBy(() -> leaderboardService.getProfitRanking(TO, FROM, true))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private User user(String name, Role role) {
+        return mongoTemplate.insert(User.builder()
+                .email(name + "@coticbet.com")
+                .name(name)
+                .role(role)
+                .walletBalance(new BigDecimal("100.00"))
+                .build());
+    }
+
+    /**
+     * A settled single bet of {@link #STAKE}; a LOST bet loses the stake
+     * whatever the payout
+     */
+    private Bet bet(User user, BetStatus status, BigDecimal payout, LocalDateTime settledAt) {
+        return Bet.builder()
+                .userId(user.getId())
+                .amount(STAKE)
+                .potentialPayout(payout)
+                .totalOdd(new BigDecimal("2.00"))
+                .status(status)
+                .createdAt(FROM.minusDays(2).atStartOfDay())
+                .settledAt(settledAt)
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.coticbet.service;
+
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base of the tests that run against a real MongoDB: each test class gets a
+ * mongo:7.0 container, and is skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+abstract class MongoContainerTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+}
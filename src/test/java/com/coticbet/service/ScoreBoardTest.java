@@ -0,0 +1,169 @@
+package com.coticbet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import com.coticbet.service.ScoreBoard.Score;
+import com.coticbet.service.ScoreBoard.Window;
+
+/**
+ * ScoreBoard must agree with a plain sorted list under any sequence of puts
+ * and removes.
+ */
+class ScoreBoardTest {
+
+    private static final int OPERATIONS = 20_000;
+    private static final int USERS = 200;
+    private static final int CHECK_EVERY = 250;
+
+    private static final Comparator<Score> ASCENDING = Comparator
+            .comparing(Score::value)
+            .thenComparing(Score::userId);
+
+    private static final List<Predicate<BigDecimal>> FILTERS = List.of(
+            value -> true,
+            value -> value.signum() > 0,
+            value -> value.signum() < 0,
+            value -> value.signum() >= 0);
+
+    private final Random random = new Random(42);
+
+    @Test
+    void randomOperationsMatchSortedReference() {
+        ScoreBoard board = new ScoreBoard();
+        Map<String, BigDecimal> reference = new HashMap<>();
+
+        for (int i = 1; i <= OPERATIONS; i++) {
+            String userId = "user-" + random.nextInt(USERS);
+            if (random.nextInt(5) == 0) {
+                board.remove(userId);
+                reference.remove(userId);
+            } else {
+                // Few distinct values, so ties are broken by userId
+                BigDecimal value = BigDecimal.valueOf(random.nextInt(41) - 20, 2);
+                board.put(userId, value);
+                reference.put(userId, value);
+            }
+
+            if (i % CHECK_EVERY == 0) {
+                assertMatches(board, reference);
+            }
+        }
+    }
+
+    @Test
+    void aroundClipsWindowAtBothEdges() {
+        ScoreBoard board = new ScoreBoard();
+        for (int i = 1; i <= 5; i++) {
+            board.put("user-" + i, BigDecimal.valueOf(i));
+        }
+
+        Window highest = board.around("user-5", 2, true, value -> true);
+        assertThat(highest).isEqualTo(new Window(1, 1, 5, List.of(
+                score("user-5", 5), score("user-4", 4), score("user-3", 3))));
+
+        Window lowest = board.around("user-1", 2, true, value -> true);
+        assertThat(lowest).isEqualTo(new Window(5, 3, 5, List.of(
+                score("user-3", 3), score("user-2", 2), score("user-1", 1))));
+
+        Window ascending = board.around("user-1", 2, false, value -> true);
+        assertThat(ascending).isEqualTo(new Window(1, 1, 5, List.of(
+                score("user-1", 1), score("user-2", 2), score("user-3", 3))));
+    }
+
+    @Test
+    void aroundOnlyRanksScoresPassingTheFilter() {
+        ScoreBoard board = new ScoreBoard();
+        board.put("loser", BigDecimal.valueOf(-3));
+        board.put("even", BigDecimal.ZERO);
+        board.put("winner", BigDecimal.valueOf(2));
+        board.put("champion", BigDecimal.valueOf(7));
+
+        Predicate<BigDecimal> profits = value -> value.signum() > 0;
+        assertThat(board.around("winner", 5, true, profits)).isEqualTo(new Window(2, 1, 2, List.of(
+                score("champion", 7), score("winner", 2))));
+        assertThat(board.around("loser", 5, true, profits)).isNull();
+
+        Predicate<BigDecimal> losses = value -> value.signum() < 0;
+        assertThat(board.around("loser", 5, false, losses)).isEqualTo(new Window(1, 1, 1, List.of(
+                score("loser", -3))));
+        assertThat(board.around("even", 5, false, losses)).isNull();
+
+        assertThat(board.around("nobody", 5, true, value -> true)).isNull();
+    }
+
+    private void assertMatches(ScoreBoard board, Map<String, BigDecimal> reference) {
+        List<Score> ascending = new ArrayList<>();
+        reference.forEach((userId, value) -> ascending.add(new Score(userId, value)));
+        ascending.sort(ASCENDING);
+        List<Score> descending = new ArrayList<>(ascending);
+        descending.sort(ASCENDING.reversed());
+
+        assertThat(board.size()).isEqualTo(ascending.size());
+
+        for (int f = 0; f < FILTERS.size(); f++) {
+            Predicate<BigDecimal> filter = FILTERS.get(f);
+
+            for (int limit : new int[] { 0, 1, 7, ascending.size() + 3 }) {
+                assertThat(board.top(limit, filter)).as("top %d, filter %d", limit, f)
+                        .isEqualTo(takeWhile(descending, limit, filter));
+                assertThat(board.bottom(limit, filter)).as("bottom %d, filter %d", limit, f)
+                        .isEqualTo(takeWhile(ascending, limit, filter));
+            }
+
+            List<String> userIds = new ArrayList<>();
+            ascending.stream().filter(score -> filter.test(score.value())).findFirst()
+                    .ifPresent(score -> userIds.add(score.userId()));
+            descending.stream().filter(score -> filter.test(score.value())).findFirst()
+                    .ifPresent(score -> userIds.add(score.userId()));
+            for (int i = 0; i < 5; i++) {
+                userIds.add("user-" + random.nextInt(USERS + 10));
+            }
+
+            for (String userId : userIds) {
+                int neighbours = random.nextInt(4);
+                assertThat(board.around(userId, neighbours, true, filter))
+                        .as("around %s desc, filter %d", userId, f)
+                        .isEqualTo(around(descending, userId, neighbours, filter));
+                assertThat(board.around(userId, neighbours, false, filter))
+                        .as("around %s asc, filter %d", userId, f)
+                        .isEqualTo(around(ascending, userId, neighbours, filter));
+            }
+        }
+    }
+
+    private static List<Score> takeWhile(List<Score> sorted, int limit, Predicate<BigDecimal> filter) {
+        return sorted.stream().limit(limit).takeWhile(score -> filter.test(score.value())).toList();
+    }
+
+    private static Window around(List<Score> sorted, String userId, int neighbours, Predicate<BigDecimal> filter) {
+        List<Score> ranked = sorted.stream().filter(score -> filter.test(score.value())).toList();
+        int position = -1;
+        for (int i = 0; i < ranked.size(); i++) {
+            if (ranked.get(i).userId().equals(userId)) {
+                position = i;
+            }
+        }
+        if (position < 0) {
+            return null;
+        }
+
+        int from = Math.max(0, position - neighbours);
+        int to = Math.min(ranked.size(), position + neighbours + 1);
+        return new Window(position + 1, from + 1, ranked.size(), ranked.subList(from, to));
+    }
+
+    private static Score score(String userId, long value) {
+        return new Score(userId, BigDecimal.valueOf(value));
+    }
+}
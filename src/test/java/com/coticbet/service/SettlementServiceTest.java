@@ -0,0 +1,249 @@
+package com.coticbet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.coticbet.domain.entity.Bet;
+import com.coticbet.domain.entity.BetLeg;
+import com.coticbet.domain.entity.Event;
+import com.coticbet.domain.entity.EventOption;
+import com.coticbet.domain.entity.ProfitStat;
+import com.coticbet.domain.entity.SettlementJob;
+import com.coticbet.domain.entity.Transaction;
+import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.BetStatus;
+import com.coticbet.domain.enums.EventStatus;
+import com.coticbet.domain.enums.LegStatus;
+import com.coticbet.domain.enums.PricingModel;
+import com.coticbet.domain.enums.SettlementJobStatus;
+import com.coticbet.domain.enums.SettlementJobType;
+import com.coticbet.domain.enums.TransactionOrigin;
+import com.coticbet.repository.SettlementJobRepository;
+import com.coticbet.service.WalletService.WalletCredit;
+
+/**
+ * Settlement jobs must pay every winning bet exactly once, also when a job
+ * resumes a chunk that a crashed run had partly written, and must not leave
+ * chunk markers behind.
+ */
+@DataMongoTest(properties = { "app.settlement.chunk-size=3", "app.settlement.parallelism=4" })
+@Import({ SettlementService.class, EventService.class, BetService.class, WalletService.class,
+        TransactionService.class, WealthRankingService.class, BadgeProgressService.class, ProfitStatsService.class,
+        LeaderboardService.class, OddsBook.class, ParimutuelOddsEngine.class,
+        SettlementServiceTest.SettlementExecutors.class })
+class SettlementServiceTest extends MongoContainerTest {
+
+    private static final int USERS = 5;
+    private static final BigDecimal BALANCE = new BigDecimal("100.00");
+    private static final BigDecimal WIN_STAKE = new BigDecimal("10.00");
+    private static final BigDecimal LOSS_STAKE = new BigDecimal("5.00");
+    private static final BigDecimal PAYOUT = new BigDecimal("20.00");
+
+    @TestConfiguration
+    static class SettlementExecutors {
+
+        @Bean(destroyMethod = "close")
+        ExecutorService settlementExecutor() {
+            return Executors.newFixedThreadPool(4);
+        }
+
+        @Bean(destroyMethod = "close")
+        ExecutorService settlementJobExecutor() {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private BetService betService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private SettlementJobRepository settlementJobRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @MockBean
+    private WebSocketService webSocketService;
+
+    private Event event;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        for (String collection : mongoTemplate.getCollectionNames()) {
+            mongoTemplate.remove(new Query(), collection);
+        }
+
+        event = mongoTemplate.insert(Event.builder()
+                .title("Final")
+                .status(EventStatus.LOCKED)
+                .pricingModel(PricingModel.FIXED_ODDS)
+                .options(List.of(option("home"), option("away")))
+                .build());
+
+        users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(mongoTemplate.insert(User.builder()
+                    .email("player" + i + "@coticbet.com")
+                    .walletBalance(BALANCE)
+                    .build()));
+        }
+        // One winning and one losing bet per user, interleaved across chunks
+        for (User user : users) {
+            mongoTemplate.insert(bet(user, "home", WIN_STAKE));
+        }
+        for (User user : users) {
+            mongoTemplate.insert(bet(user, "away", LOSS_STAKE));
+        }
+    }
+
+    @Test
+    void settlesEveryBetOnceAndReleasesMarkers() {
+        String jobId = settlementService.settleEvent(event.getId(), "home").getId();
+        SettlementJob job = awaitCompletion(jobId);
+
+        assertThat(job.getProcessedCount()).isEqualTo(2 * USERS);
+        assertSettledOnce(jobId);
+    }
+
+    @Test
+    void resumedRunCompletesPartlyWrittenChunkWithoutPayingTwice() {
+        List<Bet> bets = mongoTemplate.find(new Query().with(Sort.by("_id")), Bet.class);
+        List<Bet> chunk = bets.subList(0, 3);
+        String chunkEnd = chunk.get(2).getId();
+
+        // A run that recorded its first chunk, credited its winners and saved
+        // only its first bet before the process died
+        SettlementJob job = settlementJobRepository.save(SettlementJob.builder()
+                .eventId(event.getId())
+                .type(SettlementJobType.SETTLE)
+                .winnerOptionId("home")
+                .chunkEndBetId(chunkEnd)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        eventService.finalizeForSettlement(event.getId(), job.getId(), EventStatus.SETTLED, "home",
+                List.of(EventStatus.LOCKED));
+
+        ChunkMarker marker = new ChunkMarker(job.getId(), chunkEnd);
+        walletService.creditAll(marker, chunk.stream()
+                .map(bet -> new WalletCredit(bet.getUserId(), PAYOUT, TransactionOrigin.BET_WIN, bet.getId()))
+                .toList());
+        Bet first = chunk.get(0);
+        first.getLegs().get(0).setStatus(LegStatus.WON);
+        first.setStatus(BetStatus.WON);
+        first.setSettledAt(LocalDateTime.now());
+        first.setSettlementJobId(job.getId());
+        betService.saveSettledBets(List.of(first));
+
+        settlementService.resumeJob(event.getId());
+        awaitCompletion(job.getId());
+
+        assertSettledOnce(job.getId());
+    }
+
+    private void assertSettledOnce(String jobId) {
+        for (User user : users) {
+            User saved = mongoTemplate.findById(user.getId(), User.class);
+            assertThat(saved.getWalletBalance())
+                    .as("balance of %s", user.getEmail())
+                    .isEqualByComparingTo(BALANCE.add(PAYOUT));
+        }
+
+        List<Transaction> payouts = mongoTemplate.find(
+                Query.query(Criteria.where("origin").is(TransactionOrigin.BET_WIN)), Transaction.class);
+        assertThat(payouts).hasSize(USERS);
+        assertThat(payouts).extracting(Transaction::getReferenceId).doesNotHaveDuplicates();
+
+        List<Bet> bets = mongoTemplate.findAll(Bet.class);
+        assertThat(bets).allSatisfy(bet -> {
+            assertThat(bet.getStatus()).isIn(BetStatus.WON, BetStatus.LOST);
+            assertThat(bet.getSettlementJobId()).isEqualTo(jobId);
+        });
+        assertThat(bets).filteredOn(bet -> bet.getStatus() == BetStatus.WON).hasSize(USERS);
+
+        assertThat(markers(User.class, "creditChunks." + jobId)).isZero();
+        assertThat(markers(User.class, "streakChunks." + jobId)).isZero();
+        assertThat(markers(ProfitStat.class, "appliedChunks." + jobId)).isZero();
+    }
+
+    private long markers(Class<?> type, String path) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(type))
+                .countDocuments(new Document(path, new Document("$exists", true)));
+    }
+
+    private SettlementJob awaitCompletion(String jobId) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            SettlementJob job = settlementJobRepository.findById(jobId).orElseThrow();
+            if (job.getStatus() != SettlementJobStatus.RUNNING) {
+                assertThat(job.getStatus()).as("job error: %s", job.getError())
+                        .isEqualTo(SettlementJobStatus.COMPLETED);
+                return job;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new AssertionError("Settlement job " + jobId + " did not finish");
+    }
+
+    private static EventOption option(String id) {
+        return EventOption.builder()
+                .id(id)
+                .name(id)
+                .currentOdd(new BigDecimal("2.00"))
+                .seedOdd(new BigDecimal("2.00"))
+                .build();
+    }
+
+    private Bet bet(User user, String optionId, BigDecimal amount) {
+        return Bet.builder()
+                .userId(user.getId())
+                .legs(new ArrayList<>(List.of(BetLeg.builder()
+                        .eventId(event.getId())
+                        .eventTitle(event.getTitle())
+                        .chosenOptionId(optionId)
+                        .lockedOdd(new BigDecimal("2.00"))
+                        .status(LegStatus.PENDING)
+                        .build())))
+                .totalOdd(new BigDecimal("2.00"))
+                .amount(amount)
+                .potentialPayout(amount.multiply(new BigDecimal("2.00")))
+                .status(BetStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.coticbet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+
+import com.coticbet.domain.entity.Badge;
+import com.coticbet.domain.entity.Transaction;
+import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.BadgeType;
+import com.coticbet.domain.enums.TransactionOrigin;
+import com.coticbet.repository.TransactionRepository;
+import com.coticbet.repository.UserRepository;
+
+/**
+ * Concurrent evaluations of the same badge must award it once: the
+ * badges.code $ne guard in {@link WalletService#awardBadge} is checked
+ * atomically with the push and the reward $inc.
+ */
+@DataMongoTest
+@Import({ WalletService.class, TransactionService.class, WealthRankingService.class })
+class WalletServiceBadgeConcurrencyTest extends MongoContainerTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void clean() {
+        userRepository.deleteAll();
+        transactionRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentAwardsGrantBadgeOnce() throws Exception {
+        User user = userRepository.save(User.builder()
+                .email("badge@coticbet.com")
+                .walletBalance(new BigDecimal("100.00"))
+                .build());
+        BadgeType type = BadgeType.values()[0];
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<BigDecimal>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                Callable<BigDecimal> award = () -> {
+                    start.await();
+                    return walletService.awardBadge(user.getId(), Badge.builder()
+                            .code(type)
+                            .rewardAmount(type.getRewardAmount())
+                            .earnedAt(LocalDateTime.now())
+                            .build());
+                };
+                results.add(executor.submit(award));
+            }
+            start.countDown();
+
+            List<BigDecimal> balances = new ArrayList<>();
+            for (Future<BigDecimal> result : results) {
+                balances.add(result.get());
+            }
+            assertThat(balances.stream().filter(Objects::nonNull).toList()).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        User saved = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(saved.getBadges()).hasSize(1);
+        assertThat(saved.getBadges().get(0).getCode()).isEqualTo(type);
+        assertThat(saved.getWalletBalance())
+                .isEqualByComparingTo(new BigDecimal("100.00").add(type.getRewardAmount()));
+
+        List<Transaction> rewards = transactionRepository.findAll().stream()
+                .filter(t -> t.getOrigin() == TransactionOrigin.ACHIEVEMENT_REWARD)
+                .toList();
+        assertThat(rewards).hasSize(1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.coticbet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+
+import com.coticbet.domain.entity.Transaction;
+import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.TransactionOrigin;
+import com.coticbet.exception.InsufficientBalanceException;
+import com.coticbet.exception.ResourceNotFoundException;
+import com.coticbet.repository.TransactionRepository;
+import com.coticbet.repository.UserRepository;
+
+/**
+ * Concurrent debits must never overdraw a wallet: the walletBalance $gte
+ * guard in {@link WalletService#debit} is checked atomically with the $inc,
+ * so only as many debits as the balance covers succeed.
+ */
+@DataMongoTest
+@Import({ WalletService.class, TransactionService.class, WealthRankingService.class })
+class WalletServiceDebitConcurrencyTest extends MongoContainerTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void clean() {
+        userRepository.deleteAll();
+        transactionRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentDebitsNeverOverdraw() throws Exception {
+        User user = userRepository.save(User.builder()
+                .email("debit@coticbet.com")
+                .walletBalance(new BigDecimal("50.00"))
+                .build());
+        BigDecimal stake = new BigDecimal("10.00");
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<BigDecimal>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                String betId = "bet-" + i;
+                Callable<BigDecimal> debit = () -> {
+                    start.await();
+                    return walletService.debit(user.getId(), stake, TransactionOrigin.BET_ENTRY, betId);
+                };
+                results.add(executor.submit(debit));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            int rejected = 0;
+            for (Future<BigDecimal> result : results) {
+                try {
+                    assertThat(result.get()).isNotNegative();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(InsufficientBalanceException.class);
+                    rejected++;
+                }
+            }
+            assertThat(succeeded).isEqualTo(5);
+            assertThat(rejected).isEqualTo(THREADS - 5);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        User saved = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(saved.getWalletBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+
+        List<Transaction> entries = transactionRepository.findAll().stream()
+                .filter(t -> t.getOrigin() == TransactionOrigin.BET_ENTRY)
+                .toList();
+        assertThat(entries).hasSize(5);
+        assertThat(entries).allSatisfy(t -> assertThat(t.getBalanceAfter()).isNotNegative());
+    }
+
+    @Test
+    void debitOfUnknownUserIsNotFound() {
+        assertThatThrownBy(() -> walletService.debit("missing", BigDecimal.ONE, TransactionOrigin.BET_ENTRY, "bet"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(transactionRepository.count()).isZero();
+    }
+}
@@ -0,0 +1,122 @@
+package com.coticbet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.coticbet.domain.entity.User;
+import com.coticbet.domain.enums.Role;
+import com.coticbet.domain.enums.TransactionOrigin;
+import com.coticbet.dto.response.LeaderboardEntry;
+
+/**
+ * The wealth leaderboard lists the ten richest non-admin users with a
+ * non-negative balance, both from the bounded startup query and from the live
+ * board once wallet changes keep it current.
+ */
+// Own database: the board loads on ApplicationReadyEvent, before any test
+// data exists, and must not pick up users other test classes left behind
+@DataMongoTest(properties = "spring.data.mongodb.database=wealth")
+@Import({ LeaderboardService.class, ProfitStatsService.class, WealthRankingService.class, WalletService.class,
+        TransactionService.class })
+class WealthRankingServiceTest extends MongoContainerTest {
+
+    private static final int PLAYERS = 12;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private WealthRankingService wealthRankingService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private User admin;
+    private User broke;
+
+    @BeforeEach
+    void setUp() {
+        clean();
+
+        // player1 holds 10.00, player12 120.00
+        for (int i = 1; i <= PLAYERS; i++) {
+            user("player" + i, Role.USER, BigDecimal.valueOf(10L * i));
+        }
+        admin = user("admin", Role.ADMIN, new BigDecimal("100000.00"));
+        broke = user("broke", Role.USER, new BigDecimal("-5.00"));
+    }
+
+    @Test
+    void boundedQueryOnlyReadsTheTopBalances() {
+        List<User> top = wealthRankingService.findTop(10);
+
+        assertThat(top).extracting(User::getName)
+                .containsExactly("player12", "player11", "player10", "player9", "player8", "player7", "player6",
+                        "player5", "player4", "player3");
+        // Projected: only what a leaderboard row needs
+        assertThat(top).allSatisfy(user -> assertThat(user.getPassword()).isNull());
+    }
+
+    @Test
+    void liveBoardFollowsWalletChanges() {
+        wealthRankingService.load();
+        assertTopTen(leaderboardService.getWealthRanking(), "player12", "120.00", "player3");
+
+        User player1 = mongoTemplate.findOne(Query.query(Criteria.where("name").is("player1")), User.class);
+        walletService.credit(player1.getId(), new BigDecimal("200.00"), TransactionOrigin.ADMIN_GIFT, null);
+        walletService.credit(admin.getId(), new BigDecimal("1.00"), TransactionOrigin.ADMIN_GIFT, null);
+        walletService.credit(broke.getId(), new BigDecimal("4.00"), TransactionOrigin.ADMIN_GIFT, null);
+
+        // Registered after the load and only seen through its first balance change
+        User late = user("late", Role.USER, BigDecimal.ZERO);
+        walletService.credit(late.getId(), new BigDecimal("115.00"), TransactionOrigin.ADMIN_GIFT, null);
+
+        List<LeaderboardEntry> ranking = leaderboardService.getWealthRanking();
+        assertThat(ranking).extracting(LeaderboardEntry::getName)
+                .containsExactly("player1", "player12", "late", "player11", "player10", "player9", "player8",
+                        "player7", "player6", "player5");
+        assertThat(ranking.get(0).getValue()).isEqualByComparingTo("210.00");
+        assertThat(ranking.get(0).getValueLabel()).isEqualTo("R$ 210.00");
+    }
+
+    @AfterEach
+    void clean() {
+        for (String collection : mongoTemplate.getCollectionNames()) {
+            mongoTemplate.remove(new Query(), collection);
+        }
+    }
+
+    private void assertTopTen(List<LeaderboardEntry> ranking, String first, String balance, String last) {
+        assertThat(ranking).hasSize(10);
+        assertThat(ranking).extracting(LeaderboardEntry::getRank).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        assertThat(ranking).extracting(LeaderboardEntry::getUserId).doesNotContain(admin.getId(), broke.getId());
+        assertThat(ranking.get(0).getName()).isEqualTo(first);
+        assertThat(ranking.get(0).getValue()).isEqualByComparingTo(balance);
+        assertThat(ranking.get(9).getName()).isEqualTo(last);
+    }
+
+    private User user(String name, Role role, BigDecimal balance) {
+        return mongoTemplate.insert(User.builder()
+                .email(name + "@coticbet.com")
+                .name(name)
+                .password("hash")
+                .role(role)
+                .walletBalance(balance)
+                .build());
+    }
+}